@@ -0,0 +1,290 @@
+package typecast.benchmark;
+
+import typecast.task.Deadline;
+import typecast.task.Event;
+import typecast.task.Period;
+import typecast.task.Task;
+import typecast.task.TaskList;
+import typecast.task.Todo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A compact store of tasks held column by column in primitive arrays, rather than as one object per task.
+ * Each task takes a type code, a done flag, its ID, up to two dates as minutes since the epoch,
+ * and its description as UTF-8 bytes in a shared array, which is a fraction of the heap a {@link Task}
+ * with its {@code LocalDateTime} and {@code String} objects needs.
+ *
+ * <p>This is a measurement prototype for {@link TaskFootprint}, not used by the application.
+ * {@link #get} builds a new task from the columns on every call, so changing the returned task does
+ * not change the store. {@link TaskList} keeps real task objects instead, as its indexes find tasks
+ * by identity and tasks cache their display strings.
+ */
+final class ColumnarTaskStore {
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final byte PERIOD = 'P';
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ARENA_BYTES = 256;
+
+    private byte[] types;
+    private int[] ids;
+    private final BitSet doneFlags = new BitSet();
+    private long[] starts;
+    private long[] ends;
+    private int[] descriptionOffsets;
+    private int[] descriptionLengths;
+    private byte[] descriptionArena;
+    private int arenaSize;
+    private int liveDescriptionBytes;
+    private int size;
+
+    /**
+     * Creates an empty store.
+     */
+    public ColumnarTaskStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a store holding copies of the given tasks, in order.
+     */
+    public ColumnarTaskStore(List<Task> tasks) {
+        this(Math.max(tasks.size(), INITIAL_CAPACITY));
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    private ColumnarTaskStore(int capacity) {
+        types = new byte[capacity];
+        ids = new int[capacity];
+        starts = new long[capacity];
+        ends = new long[capacity];
+        descriptionOffsets = new int[capacity];
+        descriptionLengths = new int[capacity];
+        descriptionArena = new byte[INITIAL_ARENA_BYTES];
+    }
+
+    /**
+     * Appends a copy of the task, including its ID and whether it is done.
+     */
+    public void add(Task task) {
+        ensureCapacity(size + 1);
+        if (task instanceof Deadline) {
+            types[size] = DEADLINE;
+            starts[size] = toEpochMinutes(((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            types[size] = EVENT;
+            starts[size] = toEpochMinutes(event.getFrom());
+            ends[size] = toEpochMinutes(event.getTo());
+        } else if (task instanceof Period) {
+            Period period = (Period) task;
+            types[size] = PERIOD;
+            starts[size] = toEpochMinutes(period.getStartDate());
+            ends[size] = toEpochMinutes(period.getEndDate());
+        } else {
+            types[size] = TODO;
+        }
+        ids[size] = task.getId();
+        doneFlags.set(size, task.isDone());
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        ensureArenaCapacity(description.length);
+        System.arraycopy(description, 0, descriptionArena, arenaSize, description.length);
+        descriptionOffsets[size] = arenaSize;
+        descriptionLengths[size] = description.length;
+        arenaSize += description.length;
+        liveDescriptionBytes += description.length;
+        size++;
+    }
+
+    /**
+     * Builds a task from the store. Every call returns a new task.
+     * @param index The index of the task (0-based)
+     * @return The task, with its ID and done flag set
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Task get(int index) {
+        checkIndex(index);
+        String description = getDescription(index);
+        Task task;
+        switch (types[index]) {
+            case DEADLINE:
+                task = new Deadline(description, fromEpochMinutes(starts[index]));
+                break;
+            case EVENT:
+                task = new Event(description, fromEpochMinutes(starts[index]), fromEpochMinutes(ends[index]));
+                break;
+            case PERIOD:
+                task = new Period(description, fromEpochMinutes(starts[index]), fromEpochMinutes(ends[index]));
+                break;
+            default:
+                task = new Todo(description);
+                break;
+        }
+        if (doneFlags.get(index)) {
+            task.markDone();
+        }
+        if (ids[index] > 0) {
+            task.setId(ids[index]);
+        }
+        return task;
+    }
+
+    /**
+     * Builds every task in the store, in order.
+     */
+    public ArrayList<Task> toTasks() {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(get(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the description of a task without building the task.
+     * @param index The index of the task (0-based)
+     */
+    public String getDescription(int index) {
+        checkIndex(index);
+        return new String(descriptionArena, descriptionOffsets[index], descriptionLengths[index],
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the ID of a task without building the task.
+     * @param index The index of the task (0-based)
+     * @return The ID, or 0 if the task had none when it was added
+     */
+    public int getId(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * Returns whether a task is done without building the task.
+     * @param index The index of the task (0-based)
+     */
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return doneFlags.get(index);
+    }
+
+    /**
+     * Marks a task in the store as done or not done.
+     * @param index The index of the task (0-based)
+     * @param isDone Whether the task is done
+     */
+    public void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        doneFlags.set(index, isDone);
+    }
+
+    /**
+     * Removes a task, moving the later tasks up by one. Takes O(n) time.
+     * The description's bytes are reclaimed once removed descriptions take up half of the shared array.
+     * @param index The index of the task (0-based)
+     * @return The removed task
+     */
+    public Task remove(int index) {
+        Task removed = get(index);
+        liveDescriptionBytes -= descriptionLengths[index];
+        int moved = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(ends, index + 1, ends, index, moved);
+        System.arraycopy(descriptionOffsets, index + 1, descriptionOffsets, index, moved);
+        System.arraycopy(descriptionLengths, index + 1, descriptionLengths, index, moved);
+        for (int i = index; i < size - 1; i++) {
+            doneFlags.set(i, doneFlags.get(i + 1));
+        }
+        size--;
+        doneFlags.clear(size);
+
+        if (liveDescriptionBytes < arenaSize / 2) {
+            compactArena();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of tasks in the store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes held by the store's arrays, including unused capacity.
+     */
+    public long getAllocatedBytes() {
+        long perTaskBytes = Byte.BYTES + Integer.BYTES + 2L * Long.BYTES + 2L * Integer.BYTES;
+        return perTaskBytes * types.length + descriptionArena.length + doneFlags.size() / Byte.SIZE;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length + (types.length >> 1));
+        types = Arrays.copyOf(types, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        starts = Arrays.copyOf(starts, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, newCapacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+    }
+
+    private void ensureArenaCapacity(int extraBytes) {
+        long required = (long) arenaSize + extraBytes;
+        if (required <= descriptionArena.length) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Task descriptions do not fit in the store");
+        }
+        long grown = descriptionArena.length + ((long) descriptionArena.length >> 1);
+        descriptionArena = Arrays.copyOf(descriptionArena, (int) Math.min(Math.max(required, grown),
+                Integer.MAX_VALUE - 8));
+    }
+
+    /**
+     * Moves the descriptions of the remaining tasks to the front of the shared array, in task order.
+     */
+    private void compactArena() {
+        byte[] compacted = new byte[Math.max(liveDescriptionBytes, INITIAL_ARENA_BYTES)];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(descriptionArena, descriptionOffsets[i], compacted, position, descriptionLengths[i]);
+            descriptionOffsets[i] = position;
+            position += descriptionLengths[i];
+        }
+        descriptionArena = compacted;
+        arenaSize = position;
+    }
+
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,96 @@
+package typecast.benchmark;
+
+import typecast.task.DescriptionInterner;
+import typecast.task.Task;
+import typecast.task.TaskList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained by generated tasks when held as a plain list of task objects,
+ * in a {@link TaskList} with and without a {@link DescriptionInterner}, and in a {@link ColumnarTaskStore}.
+ * JMH measures time rather than retained memory, so this runs on its own:
+ * <pre>
+ * ./gradlew measureFootprint -Pcount=1000000 -Pmix=MIXED
+ * </pre>
+ * Heap use is read after requesting garbage collection, so run it with a fixed heap such as
+ * {@code -Xms4g -Xmx4g} for steadier numbers.
+ */
+public final class TaskFootprint {
+    private static final int DESCRIPTION_TABLE_SIZE = 1 << 16;
+
+    private TaskFootprint() {
+    }
+
+    /**
+     * Prints the heap retained by each representation.
+     *
+     * @param args The task count and the task mix, e.g. {@code 1000000 MIXED}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: TaskFootprint <count> <TODOS|MIXED|DATED>");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        TaskGenerator.TaskMix mix = TaskGenerator.TaskMix.valueOf(args[1]);
+
+        long baseline = usedHeap();
+        ArrayList<Task> tasks = TaskGenerator.generate(count, mix);
+        report("Task objects in an ArrayList", usedHeap() - baseline, count);
+
+        TaskList taskList = new TaskList(tasks);
+        report("Task objects in a TaskList, with its indexes", usedHeap() - baseline, count);
+        tasks = null;
+        taskList = null;
+
+        baseline = usedHeap();
+        TaskList sharedTaskList = new TaskList(TaskGenerator.generate(count, mix), 1,
+                new DescriptionInterner(DESCRIPTION_TABLE_SIZE));
+        report("The same, sharing equal descriptions", usedHeap() - baseline, count);
+        System.out.println("  (descriptions shared: " + sharedTaskList.getDescriptionInterner().getSharedCount()
+                + ")");
+        sharedTaskList = null;
+
+        baseline = usedHeap();
+        ColumnarTaskStore store = new ColumnarTaskStore(TaskGenerator.generate(count, mix));
+        report("ColumnarTaskStore", usedHeap() - baseline, count);
+        System.out.println("  (arrays allocated: " + store.getAllocatedBytes() + " bytes)");
+        checkRoundTrip(TaskGenerator.generate(count, mix), store);
+        System.out.println("Kept " + store.size() + " task(s).");
+    }
+
+    /**
+     * Checks that the store gives back every field of the tasks it was built from,
+     * so the footprint is not measured on a store that loses data.
+     */
+    private static void checkRoundTrip(List<Task> tasks, ColumnarTaskStore store) {
+        if (store.size() != tasks.size()) {
+            throw new IllegalStateException("The store holds " + store.size() + " of " + tasks.size() + " tasks");
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            Task restored = store.get(i);
+            if (!restored.toString().equals(task.toString()) || restored.getId() != task.getId()) {
+                throw new IllegalStateException("Task " + (i + 1) + " changed in the store: " + task
+                        + " became " + restored);
+            }
+        }
+    }
+
+    private static void report(String label, long bytes, int count) {
+        System.out.printf("%-46s %,14d bytes  %,8.1f bytes/task%n", label, bytes, (double) bytes / count);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Collect a few times, as a single request may not free everything unreachable
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
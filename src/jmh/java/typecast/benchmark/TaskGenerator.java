@@ -0,0 +1,160 @@
+package typecast.benchmark;
+
+import typecast.storage.Storage;
+import typecast.task.Deadline;
+import typecast.task.Event;
+import typecast.task.Period;
+import typecast.task.Task;
+import typecast.task.Todo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic task lists and data files for the benchmarks.
+ * The same seed, count and mix always produce the same tasks.
+ *
+ * <p>Run it on its own to write a data file:
+ * <pre>
+ * ./gradlew generateTasks -Pcount=100000 -Pmix=MIXED -Pout=data/tasks.txt
+ * </pre>
+ */
+public final class TaskGenerator {
+
+    /**
+     * The proportions of each task type in a generated list, in percent.
+     */
+    public enum TaskMix {
+        TODOS(100, 0, 0, 0),
+        MIXED(40, 30, 20, 10),
+        DATED(0, 50, 30, 20);
+
+        private final int todoPercent;
+        private final int deadlinePercent;
+        private final int eventPercent;
+
+        TaskMix(int todoPercent, int deadlinePercent, int eventPercent, int periodPercent) {
+            assert todoPercent + deadlinePercent + eventPercent + periodPercent == 100 : "Mix must add up to 100%";
+            this.todoPercent = todoPercent;
+            this.deadlinePercent = deadlinePercent;
+            this.eventPercent = eventPercent;
+        }
+    }
+
+    /** Words that descriptions are built from; the benchmarks search for some of them. */
+    static final String[] WORDS = {
+        "read", "book", "return", "meeting", "project", "report", "submit", "buy", "groceries", "call",
+        "mom", "dentist", "gym", "review", "pull", "request", "lecture", "tutorial", "assignment", "quiz",
+        "lab", "write", "essay", "plan", "trip", "pay", "rent", "water", "plants", "clean",
+        "room", "laundry", "cook", "dinner", "team", "sync", "deploy", "release", "fix", "bug",
+    };
+
+    /** The first date generated tasks can fall on; dates spread over the following two years. */
+    public static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int DATE_RANGE_MINUTES = 2 * 365 * 24 * 60;
+    private static final long DEFAULT_SEED = 42;
+
+    private TaskGenerator() {
+    }
+
+    /**
+     * Generates tasks with the default seed.
+     *
+     * @param count The number of tasks.
+     * @param mix The proportions of each task type.
+     * @return The generated tasks, about a third of which are done.
+     */
+    public static ArrayList<Task> generate(int count, TaskMix mix) {
+        return generate(count, mix, DEFAULT_SEED);
+    }
+
+    /**
+     * Generates tasks with the given seed.
+     *
+     * @param count The number of tasks.
+     * @param mix The proportions of each task type.
+     * @param seed The random seed.
+     * @return The generated tasks, about a third of which are done.
+     */
+    public static ArrayList<Task> generate(int count, TaskMix mix, long seed) {
+        Random random = new Random(seed);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = generateTask(random, mix);
+            if (random.nextInt(3) == 0) {
+                task.markDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static Task generateTask(Random random, TaskMix mix) {
+        String description = generateDescription(random);
+        // Whole minutes, as the storage format keeps nothing finer
+        LocalDateTime start = START.plusMinutes(random.nextInt(DATE_RANGE_MINUTES));
+        int type = random.nextInt(100);
+
+        if (type < mix.todoPercent) {
+            return new Todo(description);
+        } else if (type < mix.todoPercent + mix.deadlinePercent) {
+            return new Deadline(description, start);
+        } else if (type < mix.todoPercent + mix.deadlinePercent + mix.eventPercent) {
+            return new Event(description, start, start.plusMinutes(30 + random.nextInt(8 * 60)));
+        } else {
+            return new Period(description, start, start.plusDays(1 + random.nextInt(30)));
+        }
+    }
+
+    private static String generateDescription(Random random) {
+        int wordCount = 2 + random.nextInt(4);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes generated tasks to a data file in the given storage format.
+     *
+     * @param path The data file to write.
+     * @param count The number of tasks.
+     * @param mix The proportions of each task type.
+     * @param format The storage format.
+     */
+    public static void writeFile(Path path, int count, TaskMix mix, Storage.Format format) {
+        Storage storage = new Storage(path.toString());
+        storage.setFormat(format);
+        storage.saveTasks(generate(count, mix));
+    }
+
+    /**
+     * Writes a synthetic text data file.
+     *
+     * @param args The task count, the task mix and the output file, e.g. {@code 100000 MIXED data/tasks.txt}.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.out.println("Usage: TaskGenerator <count> <TODOS|MIXED|DATED> <output file>");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        TaskMix mix = TaskMix.valueOf(args[1]);
+        Path path = Paths.get(args[2]);
+        if (Files.exists(path)) {
+            System.out.println("Refusing to overwrite " + path);
+            return;
+        }
+
+        writeFile(path, count, mix, Storage.Format.TEXT);
+        System.out.println("Wrote " + count + " " + mix + " task(s) to " + path);
+    }
+}
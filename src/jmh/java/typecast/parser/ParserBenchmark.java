@@ -0,0 +1,115 @@
+package typecast.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import typecast.benchmark.BenchmarkFiles;
+import typecast.benchmark.TaskGenerator;
+import typecast.exception.TypeCastException;
+import typecast.storage.Storage;
+import typecast.task.TaskList;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures command dispatch and execution through the GUI entry point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    /**
+     * A generated task list saved to a journaled data file.
+     */
+    @State(Scope.Benchmark)
+    public static class ListState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int taskCount;
+
+        @Param({"MIXED", "TODOS", "DATED"})
+        public TaskGenerator.TaskMix mix;
+
+        Path directory;
+        Storage storage;
+        TaskList tasks;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("typecast-bench");
+            storage = new Storage(directory.resolve("tasks.txt").toString());
+            storage.setJournaled(true);
+            tasks = new TaskList(TaskGenerator.generate(taskCount, mix));
+            storage.saveTasks(tasks.getTasks());
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            BenchmarkFiles.deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * A task list and a read-only command to run against it.
+     */
+    @State(Scope.Benchmark)
+    public static class QueryState extends ListState {
+        /** Read-only commands, plus one that fails dispatch. */
+        @Param({"stats", "find meeting", "due 2024-01-07", "between 2024-06-01 /to 2024-06-07", "list 1",
+            "list pending deadline 1", "not a command"})
+        public String command;
+    }
+
+    @Benchmark
+    public String query(QueryState state) {
+        try {
+            return Parser.parseCommandForGui(state.command, state.tasks, state.storage);
+        } catch (TypeCastException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Writes the full task list the way the CLI does, without building the whole message as a String.
+     */
+    @Benchmark
+    public Writer streamFullList(ListState state) throws IOException, TypeCastException {
+        Writer out = new BufferedWriter(Writer.nullWriter(), 64 * 1024);
+        Parser.execute("list", state.tasks, state.storage).renderTo(out);
+        out.flush();
+        return out;
+    }
+
+    /**
+     * Builds the full task list as one String, the way the GUI receives it.
+     */
+    @Benchmark
+    public String buildFullList(ListState state) throws TypeCastException {
+        return Parser.execute("list", state.tasks, state.storage).getMessage();
+    }
+
+    /**
+     * Adds a todo and deletes it again through the parser, including the journal writes.
+     */
+    @Benchmark
+    public String addThenDelete(ListState state) throws TypeCastException {
+        Parser.parseCommandForGui("todo benchmark task", state.tasks, state.storage);
+        return Parser.parseCommandForGui("delete " + state.tasks.size(), state.tasks, state.storage);
+    }
+}
@@ -0,0 +1,113 @@
+package typecast.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import typecast.benchmark.BenchmarkFiles;
+import typecast.benchmark.TaskGenerator;
+import typecast.task.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading and saving whole data files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    /**
+     * A data file written once per trial, read back with each load mode.
+     * BINARY reads a binary snapshot; the other modes read the text file.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int taskCount;
+
+        @Param({"MIXED", "TODOS", "DATED"})
+        public TaskGenerator.TaskMix mix;
+
+        @Param({"STANDARD", "MEMORY_MAPPED", "PARALLEL", "BINARY"})
+        public String mode;
+
+        Path directory;
+        Storage storage;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("typecast-bench");
+            Path path = directory.resolve("tasks.txt");
+            storage = new Storage(path.toString());
+            if (mode.equals("BINARY")) {
+                storage.setFormat(Storage.Format.BINARY);
+            } else {
+                storage.setLoadMode(Storage.LoadMode.valueOf(mode));
+            }
+            storage.saveTasks(TaskGenerator.generate(taskCount, mix));
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            BenchmarkFiles.deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Tasks held in memory, saved over the same file on every invocation.
+     */
+    @State(Scope.Benchmark)
+    public static class SaveState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int taskCount;
+
+        @Param({"MIXED", "TODOS", "DATED"})
+        public TaskGenerator.TaskMix mix;
+
+        @Param({"TEXT", "BINARY"})
+        public Storage.Format format;
+
+        Path directory;
+        Storage storage;
+        ArrayList<Task> tasks;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("typecast-bench");
+            storage = new Storage(directory.resolve("tasks.txt").toString());
+            storage.setFormat(format);
+            tasks = TaskGenerator.generate(taskCount, mix);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            BenchmarkFiles.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadTasks(LoadState state) {
+        return state.storage.loadTasks();
+    }
+
+    @Benchmark
+    public void saveTasks(SaveState state) {
+        state.storage.saveTasks(state.tasks);
+    }
+}
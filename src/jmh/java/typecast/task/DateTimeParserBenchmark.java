@@ -0,0 +1,52 @@
+package typecast.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DateTimeParser} with the formatter-based parsing the task classes used before,
+ * which parsed with {@code LocalDateTime.parse} and retried with a default time on failure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeParserBenchmark {
+    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    /** A full date-time, a date on its own and text that is neither. */
+    @Param({"2024-12-31 1800", "2024-12-31", "next friday"})
+    public String input;
+
+    @Benchmark
+    public LocalDateTime formatter() {
+        try {
+            return LocalDateTime.parse(input, INPUT_FORMATTER);
+        } catch (Exception e) {
+            try {
+                return LocalDateTime.parse(input + " 2359", DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime singlePass() {
+        return DateTimeParser.parse(input, 23, 59);
+    }
+}
@@ -0,0 +1,59 @@
+package typecast.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import typecast.benchmark.TaskGenerator;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering every task in an unchanged list the way {@code list} does,
+ * comparing the cached {@link Task#toString} with formatting each task again, as it used to be done.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskFormatBenchmark {
+
+    @Param({"10000", "100000"})
+    public int taskCount;
+
+    private ArrayList<Task> tasks;
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup
+    public void setUp() {
+        tasks = TaskGenerator.generate(taskCount, TaskGenerator.TaskMix.MIXED);
+    }
+
+    @Benchmark
+    public int cached() {
+        out.setLength(0);
+        for (Task task : tasks) {
+            out.append(task.toString()).append('\n');
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int formatEachTime() {
+        out.setLength(0);
+        for (Task task : tasks) {
+            out.append(task.formatDisplayString()).append('\n');
+        }
+        return out.length();
+    }
+}
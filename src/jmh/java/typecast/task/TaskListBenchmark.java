@@ -0,0 +1,99 @@
+package typecast.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import typecast.benchmark.TaskGenerator;
+import typecast.exception.TypeCastException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures searching, querying and updating an in-memory task list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskListBenchmark {
+    private static final LocalDateTime WEEK_START = TaskGenerator.START.plusMonths(6);
+
+    /**
+     * A generated task list.
+     */
+    @State(Scope.Benchmark)
+    public static class ListState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int taskCount;
+
+        @Param({"MIXED", "TODOS", "DATED"})
+        public TaskGenerator.TaskMix mix;
+
+        TaskList tasks;
+
+        @Setup
+        public void setUp() {
+            tasks = new TaskList(TaskGenerator.generate(taskCount, mix));
+        }
+    }
+
+    /**
+     * A generated task list and a keyword to search it for.
+     */
+    @State(Scope.Benchmark)
+    public static class SearchState extends ListState {
+        /** A common word, a rare phrase, a keyword shorter than a trigram and a keyword matching nothing. */
+        @Param({"book", "pay rent", "la", "nothing matches"})
+        public String keyword;
+    }
+
+    @Benchmark
+    public ArrayList<Task> findTasks(SearchState state) {
+        return state.tasks.findTasks(state.keyword);
+    }
+
+    @Benchmark
+    public boolean hasTaskWithKeyword(SearchState state) {
+        return state.tasks.hasTaskWithKeyword(state.keyword);
+    }
+
+    @Benchmark
+    public ArrayList<Task> getTasksDueBy(ListState state) {
+        return state.tasks.getTasksDueBy(WEEK_START);
+    }
+
+    @Benchmark
+    public ArrayList<Task> getTasksBetween(ListState state) {
+        return state.tasks.getTasksBetween(WEEK_START, WEEK_START.plusDays(7));
+    }
+
+    @Benchmark
+    public long countCompletedTasks(ListState state) {
+        return state.tasks.countCompletedTasks();
+    }
+
+    @Benchmark
+    public ArrayList<Task> getPendingTasks(ListState state) {
+        return state.tasks.getPendingTasks();
+    }
+
+    /**
+     * Appends a task and deletes it again, leaving the list as it was.
+     */
+    @Benchmark
+    public Task addThenDelete(ListState state) throws TypeCastException {
+        state.tasks.add(new Deadline("submit report", WEEK_START));
+        return state.tasks.delete(state.tasks.size() - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package typecast.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import typecast.benchmark.TaskGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TaskTree} with the {@code ArrayList} that used to back {@link TaskList},
+ * for positional access, deleting near the front and iterating over every task.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskTreeBenchmark {
+
+    /**
+     * The list implementations being compared.
+     */
+    public enum Backing {
+        ARRAY_LIST,
+        TASK_TREE
+    }
+
+    @Param({"10000", "100000", "500000"})
+    public int taskCount;
+
+    @Param({"ARRAY_LIST", "TASK_TREE"})
+    public Backing backing;
+
+    private List<Task> tasks;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() {
+        ArrayList<Task> generated = TaskGenerator.generate(taskCount, TaskGenerator.TaskMix.MIXED);
+        tasks = backing == Backing.ARRAY_LIST ? generated : new TaskTree(generated);
+    }
+
+    /**
+     * Deletes a task near the front and appends it again, leaving the list the same size.
+     */
+    @Benchmark
+    public Task deleteNearFront() {
+        Task task = tasks.remove(random.nextInt(Math.min(16, taskCount)));
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Deletes a task anywhere and appends it again, leaving the list the same size.
+     */
+    @Benchmark
+    public Task deleteAnywhere() {
+        Task task = tasks.remove(random.nextInt(taskCount));
+        tasks.add(task);
+        return task;
+    }
+
+    @Benchmark
+    public Task get() {
+        return tasks.get(random.nextInt(taskCount));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int iterate() {
+        int doneCount = 0;
+        for (Task task : tasks) {
+            if (task.isDone()) {
+                doneCount++;
+            }
+        }
+        return doneCount;
+    }
+}
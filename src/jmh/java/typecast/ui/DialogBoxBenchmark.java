@@ -0,0 +1,77 @@
+package typecast.ui;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many dialog boxes can be created per second.
+ * {@link #loadFromFxml} parses a copy of the FXML template that {@link DialogBox} used to load for every message,
+ * for comparison with building the box in code and with refilling a box, as the dialog history's cells do.
+ * Needs a display, as the JavaFX toolkit is started to load the pictures.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DialogBoxBenchmark {
+    private static final String MESSAGE = "Got it. I've added this task (#42):\n  [D][ ] return book (by: Dec 31 2024 23:59)";
+
+    private Image image;
+    private DialogBox reusedBox;
+    private boolean isUser;
+
+    @Setup
+    public void setUp() {
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // The toolkit is already running
+        }
+        image = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/TypeCast.png"));
+        reusedBox = DialogBox.getTypeCastDialog("", image);
+    }
+
+    @Benchmark
+    public HBox loadFromFxml() throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(DialogBoxBenchmark.class.getResource("DialogBox.fxml"));
+        HBox box = new HBox();
+        fxmlLoader.setRoot(box);
+        fxmlLoader.load();
+        ((Label) fxmlLoader.getNamespace().get("dialog")).setText(MESSAGE);
+        return box;
+    }
+
+    @Benchmark
+    public DialogBox buildInCode() {
+        return DialogBox.getTypeCastDialog(MESSAGE, image);
+    }
+
+    /**
+     * Refills one dialog box, alternating speakers so that it is flipped every time.
+     */
+    @Benchmark
+    public DialogBox refill() {
+        isUser = !isUser;
+        reusedBox.setMessage(MESSAGE, image, isUser);
+        return reusedBox;
+    }
+}
@@ -2,17 +2,25 @@ package typecast;
 
 import javafx.application.Application;
 
+import java.util.Arrays;
+
 /**
  * A launcher class to workaround classpath issues with JavaFX.
  * Falls back to CLI mode if GUI is not available (headless environment).
  */
 public class Launcher {
     public static void main(String[] args) {
+        // Batch mode never needs a window
+        if (TypeCast.isBatchRequested(Arrays.asList(args))) {
+            TypeCast.main(args);
+            return;
+        }
+
         // Check if running in headless mode (no display available)
         if (isHeadless()) {
             // Run in CLI mode
             System.out.println("Running in CLI mode (no display detected)");
-            new TypeCast("./data/tasks.txt").run();
+            runCli(args);
         } else {
             // Try to run in GUI mode
             try {
@@ -21,11 +29,19 @@ public class Launcher {
                 // If GUI fails, fall back to CLI
                 System.err.println("Failed to launch GUI: " + e.getMessage());
                 System.out.println("Falling back to CLI mode...");
-                new TypeCast("./data/tasks.txt").run();
+                runCli(args);
             }
         }
     }
     
+    private static void runCli(String[] args) {
+        TypeCast typeCast = new TypeCast("./data/tasks.txt");
+        if (TypeCast.isWatchRequested(Arrays.asList(args))) {
+            typeCast.watchDataFile();
+        }
+        typeCast.run();
+    }
+
     /**
      * Checks if the application is running in a headless environment.
      * @return true if headless, false otherwise
@@ -15,6 +15,7 @@ import java.io.IOException;
 public class Main extends Application {
 
     private TypeCast typeCast = new TypeCast("./data/tasks.txt");
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -26,7 +27,8 @@ public class Main extends Application {
             stage.setTitle("TypeCast");
             stage.setMinHeight(600);
             stage.setMinWidth(400);
-            fxmlLoader.<MainWindow>getController().setTypeCast(typeCast);
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setTypeCast(typeCast);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
@@ -34,9 +36,22 @@ public class Main extends Application {
         }
     }
     
+    @Override
+    public void stop() {
+        if (mainWindow == null) {
+            typeCast.shutdown();
+        } else {
+            // Commands run on the window's worker thread, so TypeCast is shut down there too
+            mainWindow.shutdown();
+        }
+    }
+
     @Override
     public void init() throws Exception {
         super.init();
         // Initialize JavaFX - will throw exception if no display available
+        if (TypeCast.isWatchRequested(getParameters().getRaw())) {
+            typeCast.watchDataFile();
+        }
     }
 }
\ No newline at end of file
@@ -1,17 +1,34 @@
 package typecast;
 
 import typecast.exception.TypeCastException;
+import typecast.parser.CommandResult;
 import typecast.parser.Parser;
 import typecast.storage.Storage;
+import typecast.task.DescriptionInterner;
 import typecast.task.TaskList;
 import typecast.ui.Ui;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * TypeCast is a chatbot that helps users manage their tasks.
  * It supports three types of tasks: Todos, Deadlines, and Events.
  */
 public class TypeCast {
 
+    /** The longest time a change may wait in memory before it is written to disk. */
+    private static final long SAVE_DELAY_MILLIS = 200;
+
+    /** The number of distinct descriptions remembered for sharing between tasks with the same description. */
+    private static final int DESCRIPTION_TABLE_SIZE = 1 << 16;
+
     private Storage storage;
     private TaskList tasks;
     private Ui ui;
@@ -23,12 +40,22 @@ public class TypeCast {
     public TypeCast(String filePath) {
         ui = new Ui();
         storage = new Storage(filePath);
+        storage.setJournaled(true);
+        storage.setLoadMode(Storage.LoadMode.PARALLEL);
+        storage.setBackupCount(1);
+        DescriptionInterner descriptionInterner = new DescriptionInterner(DESCRIPTION_TABLE_SIZE);
+        storage.setDescriptionInterner(descriptionInterner);
         try {
-            tasks = new TaskList(storage.loadTasks());
+            tasks = new TaskList(storage.loadTasks(), storage.getNextTaskId(), descriptionInterner);
+            if (tasks.getNextId() != storage.getNextTaskId()) {
+                // Some tasks were given IDs just now, as older data files have none; save them right away
+                storage.saveTasks(tasks.getTasks());
+            }
         } catch (Exception e) {
             ui.showLoadingError();
-            tasks = new TaskList();
+            tasks = new TaskList(List.of(), 1, descriptionInterner);
         }
+        storage.enableWriteBehind(SAVE_DELAY_MILLIS);
     }
 
     /**
@@ -37,11 +64,20 @@ public class TypeCast {
      * @return The response message
      */
     public String getResponse(String input) {
+        String notice = reloadExternalChanges();
+        String response;
         try {
-            return Parser.parseCommandForGui(input, tasks, storage);
+            response = Parser.parseCommandForGui(input, tasks, storage);
         } catch (TypeCastException e) {
-            return e.getMessage();
+            response = e.getMessage();
+        }
+        if (notice != null) {
+            response = notice + "\n" + response;
+        }
+        for (String error : storage.drainSaveErrors()) {
+            response += "\n" + error;
         }
+        return response;
     }
 
     /**
@@ -52,6 +88,48 @@ public class TypeCast {
         return tasks;
     }
 
+    /**
+     * Starts picking up edits made to the data file by other programs while TypeCast runs.
+     * They are merged into the task list before the next command, so commands never see a list in the middle
+     * of being reloaded.
+     */
+    public void watchDataFile() {
+        try {
+            storage.watchDataFile(tasks.getTasks());
+        } catch (IOException e) {
+            ui.showError("Could not watch the data file for changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Merges any edits made to the data file by other programs into the task list.
+     * @return A message saying what was reloaded, or null if nothing was
+     */
+    private String reloadExternalChanges() {
+        try {
+            int changedCount = storage.reloadExternalChanges(tasks);
+            if (changedCount == 0) {
+                return null;
+            }
+            return "The data file was changed by another program; reloaded " + changedCount + " changed task(s).\n"
+                    + "You now have " + tasks.size() + " tasks in the list.";
+        } catch (IOException e) {
+            return "Error reloading the data file: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Compacts any pending journal records into the data file and waits for
+     * queued saves to be written before the application exits.
+     */
+    public void shutdown() {
+        while (storage.isInBatch()) {
+            storage.endBatch(tasks.getTasks());
+        }
+        storage.compact(tasks.getTasks());
+        storage.close();
+    }
+
     /**
      * Runs the main chatbot loop (CLI mode).
      */
@@ -67,20 +145,108 @@ public class TypeCast {
         while (isRunning) {
             try {
                 String input = ui.readCommand();
+                String notice = reloadExternalChanges();
+                if (notice != null) {
+                    ui.showMessage(notice);
+                }
                 isRunning = Parser.parseCommand(input, tasks, ui, storage);
             } catch (TypeCastException e) {
                 ui.showError(e.getMessage());
             }
+            showSaveErrors();
         }
         
+        shutdown();
+        showSaveErrors();
         ui.showGoodbye();
         ui.close();
     }
 
+    /**
+     * Runs every command in a file against the task list in memory and saves once at the end.
+     * Failed lines are reported with their line number and do not stop the batch; a bye line does.
+     * @param file The file of commands, one per line
+     * @return The number of commands that failed
+     */
+    public int runBatch(Path file) {
+        int commandCount = 0;
+        int errorCount = 0;
+        storage.beginBatch();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String input = line.trim();
+                if (input.isEmpty()) {
+                    continue;
+                }
+
+                commandCount++;
+                try {
+                    CommandResult result = Parser.execute(input, tasks, storage);
+                    if (result.isExit()) {
+                        break;
+                    }
+                } catch (TypeCastException e) {
+                    errorCount++;
+                    ui.showLineError(lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            errorCount++;
+            ui.showError("Error reading batch file: " + e.getMessage());
+        } finally {
+            storage.endBatch(tasks.getTasks());
+        }
+
+        shutdown();
+        showSaveErrors();
+        ui.showMessage("Ran " + commandCount + " command(s) from " + file + ": "
+                + (commandCount - errorCount) + " succeeded, " + errorCount + " failed.\n"
+                + "You now have " + tasks.size() + " tasks in the list.");
+        return errorCount;
+    }
+
+    private void showSaveErrors() {
+        for (String error : storage.drainSaveErrors()) {
+            ui.showError(error);
+        }
+    }
+
     /**
      * Main entry point for the TypeCast chatbot (CLI mode).
+     * With {@code --watch}, edits made to the data file by other programs are picked up while it runs.
      */
     public static void main(String[] args) {
-        new TypeCast("./data/tasks.txt").run();
+        if (isBatchRequested(Arrays.asList(args))) {
+            // A malformed batch call must not fall through to the interactive CLI and wait for input
+            if (args.length != 2 || !args[0].equals("--batch")) {
+                System.err.println("Usage: --batch <file>");
+                System.exit(2);
+            }
+            int errorCount = new TypeCast("./data/tasks.txt").runBatch(Paths.get(args[1]));
+            System.exit(errorCount == 0 ? 0 : 1);
+        }
+        TypeCast typeCast = new TypeCast("./data/tasks.txt");
+        if (isWatchRequested(Arrays.asList(args))) {
+            typeCast.watchDataFile();
+        }
+        typeCast.run();
+    }
+
+    /**
+     * Returns whether the command-line arguments ask for a file of commands to be run.
+     */
+    public static boolean isBatchRequested(List<String> args) {
+        return args.contains("--batch");
     }
+
+    /**
+     * Returns whether the command-line arguments ask for the data file to be watched.
+     */
+    public static boolean isWatchRequested(List<String> args) {
+        return args.contains("--watch");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package typecast.parser;
+
+import typecast.exception.TypeCastException;
+import typecast.storage.Storage;
+import typecast.task.TaskList;
+
+/**
+ * A command the user can run, looked up by its first word.
+ */
+@FunctionalInterface
+interface Command {
+
+    /**
+     * Runs the command.
+     *
+     * @param arguments Everything after the command word and the space following it; empty if there is none.
+     * @param tasks The task list to act on.
+     * @param storage The storage to record changes in.
+     * @return The result to show the user.
+     * @throws TypeCastException If the arguments are invalid or the command fails.
+     */
+    CommandResult execute(String arguments, TaskList tasks, Storage storage) throws TypeCastException;
+}
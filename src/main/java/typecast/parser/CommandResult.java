@@ -0,0 +1,100 @@
+package typecast.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The outcome of a command, rendered by both the CLI and the GUI.
+ * A long message can be streamed: it is then written piece by piece when the result is rendered,
+ * rather than built up as one String first.
+ */
+public class CommandResult {
+    private final String message;
+    private final Renderer renderer;
+    private final boolean isExit;
+
+    /**
+     * Writes a message in pieces.
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        /**
+         * Writes the message, without a trailing newline.
+         *
+         * @param out Where to write the message.
+         * @throws IOException If the message cannot be written.
+         */
+        void render(Appendable out) throws IOException;
+    }
+
+    private CommandResult(String message, Renderer renderer, boolean isExit) {
+        this.message = message;
+        this.renderer = renderer;
+        this.isExit = isExit;
+    }
+
+    /**
+     * Creates a result that shows a message and keeps the application running.
+     *
+     * @param message The message to show the user.
+     */
+    public static CommandResult of(String message) {
+        return new CommandResult(message, null, false);
+    }
+
+    /**
+     * Creates a result whose message is written by the given renderer each time it is shown.
+     * The renderer should only read state that stays the same until the result is shown.
+     *
+     * @param renderer Writes the message to show the user.
+     */
+    public static CommandResult streamed(Renderer renderer) {
+        return new CommandResult(null, renderer, false);
+    }
+
+    /**
+     * Creates a result that ends the session.
+     *
+     * @param message The farewell message to show the user.
+     */
+    public static CommandResult exit(String message) {
+        return new CommandResult(message, null, true);
+    }
+
+    /**
+     * Returns the message to show the user, building it in full if it is streamed.
+     */
+    public String getMessage() {
+        if (renderer == null) {
+            return message;
+        }
+        StringBuilder sb = new StringBuilder();
+        renderTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Writes the message to show the user, without a trailing newline.
+     *
+     * @param out Where to write the message.
+     * @throws UncheckedIOException If the message cannot be written.
+     */
+    public void renderTo(Appendable out) {
+        try {
+            if (renderer == null) {
+                out.append(message);
+            } else {
+                renderer.render(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns whether the application should stop after this command.
+     */
+    public boolean isExit() {
+        return isExit;
+    }
+}
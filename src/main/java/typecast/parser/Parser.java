@@ -1,8 +1,13 @@
 package typecast.parser;
 
 import typecast.exception.TypeCastException;
+import typecast.storage.ExchangeFormat;
+import typecast.storage.ExchangeRecord;
 import typecast.storage.Storage;
+import typecast.storage.TaskExchangeReader;
+import typecast.task.DateTimeParser;
 import typecast.task.Deadline;
+import typecast.task.DescriptionInterner;
 import typecast.task.Event;
 import typecast.task.Period;
 import typecast.task.Task;
@@ -10,206 +15,539 @@ import typecast.task.TaskList;
 import typecast.task.Todo;
 import typecast.ui.Ui;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Parses user input and executes the appropriate commands.
+ * Commands are looked up by their first word in a registry, so dispatch costs one hash lookup
+ * however many commands there are, and each command has a single handler shared by the CLI and the GUI.
  */
 public class Parser {
+    private static final DateTimeFormatter QUERY_OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, h:mma");
+    private static final String INVALID_COMMAND_MESSAGE = "Sorry, that is not a valid command!";
+    private static final String LIST_USAGE_MESSAGE = "The format of list should be: "
+            + "list [done|pending] [todo|deadline|event|period] [page|all] [--page-size <number>]";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final String EXPORT_USAGE_MESSAGE = "The format of export should be: export <file> [csv|jsonl]";
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 10;
+    private static final HashMap<String, Boolean> LIST_STATUS_FILTERS = new HashMap<>();
+    private static final HashMap<String, Class<? extends Task>> LIST_TYPE_FILTERS = new HashMap<>();
 
-    public static String parseCommandForGui(String input, TaskList tasks, Storage storage) 
+    private static final HashMap<String, Command> COMMANDS = new HashMap<>();
+
+    static {
+        LIST_STATUS_FILTERS.put("done", true);
+        LIST_STATUS_FILTERS.put("pending", false);
+        LIST_TYPE_FILTERS.put("todo", Todo.class);
+        LIST_TYPE_FILTERS.put("deadline", Deadline.class);
+        LIST_TYPE_FILTERS.put("event", Event.class);
+        LIST_TYPE_FILTERS.put("period", Period.class);
+
+        COMMANDS.put("bye", Parser::handleBye);
+        COMMANDS.put("list", Parser::handleList);
+        COMMANDS.put("stats", Parser::handleStats);
+        COMMANDS.put("find", Parser::handleFind);
+        COMMANDS.put("due", Parser::handleDue);
+        COMMANDS.put("between", Parser::handleBetween);
+        COMMANDS.put("mark", Parser::handleMark);
+        COMMANDS.put("unmark", Parser::handleUnmark);
+        COMMANDS.put("delete", Parser::handleDelete);
+        COMMANDS.put("todo", Parser::handleTodo);
+        COMMANDS.put("deadline", Parser::handleDeadline);
+        COMMANDS.put("event", Parser::handleEvent);
+        COMMANDS.put("period", Parser::handlePeriod);
+        COMMANDS.put("batch", Parser::handleBatch);
+        COMMANDS.put("import", Parser::handleImport);
+        COMMANDS.put("export", Parser::handleExport);
+    }
+
+    /**
+     * Runs a command and returns its result without displaying anything.
+     *
+     * @param input The full command line.
+     * @param tasks The task list to act on.
+     * @param storage The storage to record changes in.
+     * @return The result of the command.
+     * @throws TypeCastException If the command is unknown, invalid or fails.
+     */
+    public static CommandResult execute(String input, TaskList tasks, Storage storage) throws TypeCastException {
+        int spaceIndex = input.indexOf(' ');
+        String commandWord = spaceIndex == -1 ? input : input.substring(0, spaceIndex);
+        String arguments = spaceIndex == -1 ? "" : input.substring(spaceIndex + 1);
+
+        Command command = COMMANDS.get(commandWord);
+        if (command == null) {
+            throw new TypeCastException(INVALID_COMMAND_MESSAGE);
+        }
+        return command.execute(arguments, tasks, storage);
+    }
+
+    /**
+     * Runs a command for the GUI.
+     *
+     * @return The message to show in the chat.
+     */
+    public static String parseCommandForGui(String input, TaskList tasks, Storage storage)
             throws TypeCastException {
-        
-        if (input.equals("bye")) {
-            return "Bye. Hope to see you again soon!";
-        } else if (input.equals("list")) {
-            return formatTaskList(tasks);
-        } else if (input.startsWith("find ")) {
-            return handleFindForGui(input, tasks);
-        } else if (input.startsWith("mark ")) {
-            return handleMarkForGui(input, tasks, storage);
-        } else if (input.startsWith("unmark ")) {
-            return handleUnmarkForGui(input, tasks, storage);
-        } else if (input.startsWith("delete ")) {
-            return handleDeleteForGui(input, tasks, storage);
-        } else if (input.startsWith("todo ")) {
-            return handleTodoForGui(input, tasks, storage);
-        } else if (input.startsWith("deadline ")) {
-            return handleDeadlineForGui(input, tasks, storage);
-        } else if (input.startsWith("event ")) {
-            return handleEventForGui(input, tasks, storage);
-        } else if (input.startsWith("period ")) {
-            return handlePeriodForGui(input, tasks, storage);
-        } else if (input.equals("todo") || input.equals("deadline") || input.equals("event") || input.equals("period")) {
-            handleEmptyCommand(input);
-            return "";
-        } else {
-            throw new TypeCastException("Sorry, that is not a valid command!");
+        return execute(input, tasks, storage).getMessage();
+    }
+
+    /**
+     * Runs a command for the CLI, displaying its result through the given Ui.
+     * The farewell message is left to the caller.
+     *
+     * @return false if the application should exit, true otherwise.
+     */
+    public static boolean parseCommand(String input, TaskList tasks, Ui ui, Storage storage)
+            throws TypeCastException {
+        CommandResult result = execute(input, tasks, storage);
+        if (result.isExit()) {
+            return false;
         }
+        ui.showResult(result);
+        return true;
     }
 
-    private static String handlePeriodForGui(String input, TaskList tasks, Storage storage) 
+    private static void requireNoArguments(String arguments) throws TypeCastException {
+        if (!arguments.isEmpty()) {
+            throw new TypeCastException(INVALID_COMMAND_MESSAGE);
+        }
+    }
+
+    private static CommandResult handleBye(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        String rest = input.substring(7);
-        int withinIndex = rest.indexOf(" /within ");
-        int toIndex = rest.indexOf(" /to ");
-        
-        if (withinIndex == -1 || toIndex == -1) {
-            throw new TypeCastException(
-                "The format of period should be: period <description> /within <start> /to <end>");
+        requireNoArguments(arguments);
+        return CommandResult.exit("Bye. Hope to see you again soon!");
+    }
+
+    private static CommandResult handleList(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        Boolean status = null;
+        Class<? extends Task> type = null;
+        int page = 0;
+        int pageSize = 0;
+        boolean isAll = false;
+        String[] options = arguments.trim().isEmpty() ? new String[0] : arguments.trim().split("\\s+");
+        for (int i = 0; i < options.length; i++) {
+            String option = options[i];
+            if (option.equals("--page-size") && i + 1 < options.length) {
+                pageSize = parseListNumber(options[++i]);
+            } else if (LIST_STATUS_FILTERS.containsKey(option) && status == null) {
+                status = LIST_STATUS_FILTERS.get(option);
+            } else if (LIST_TYPE_FILTERS.containsKey(option) && type == null) {
+                type = LIST_TYPE_FILTERS.get(option);
+            } else if (Character.isDigit(option.charAt(0)) && page == 0) {
+                page = parseListNumber(option);
+            } else if (option.equals("all") && !isAll) {
+                isAll = true;
+            } else {
+                throw new TypeCastException(LIST_USAGE_MESSAGE);
+            }
         }
-        
-        String description = rest.substring(0, withinIndex).trim();
-        String start = rest.substring(withinIndex + 9, toIndex).trim();
-        String end = rest.substring(toIndex + 5).trim();
-        
-        if (description.isEmpty()) {
-            throw new TypeCastException("The description of a period cannot be empty.");
+        if (isAll && (page > 0 || pageSize > 0)) {
+            throw new TypeCastException(LIST_USAGE_MESSAGE);
         }
-        if (start.isEmpty()) {
-            throw new TypeCastException("The period start date/time cannot be empty.");
+
+        if (tasks.size() == 0) {
+            return CommandResult.of("You have no tasks in your list.");
         }
-        if (end.isEmpty()) {
-            throw new TypeCastException("The period end date/time cannot be empty.");
+
+        Boolean statusFilter = status;
+        Class<? extends Task> typeFilter = type;
+        Predicate<Task> filter = status == null && type == null ? null
+                : task -> (statusFilter == null || task.isDone() == statusFilter)
+                        && (typeFilter == null || task.getClass() == typeFilter);
+        int matchCount = filter == null ? tasks.size() : countMatching(tasks, filter);
+        if (matchCount == 0) {
+            return CommandResult.of("No tasks in your list match.");
+        }
+
+        // Long lists are paged even without a page, so the GUI never shows them as one huge label
+        boolean isDefaultPaged = !isAll && page == 0 && pageSize == 0 && matchCount > DEFAULT_PAGE_SIZE;
+        boolean isPaged = page > 0 || pageSize > 0 || isDefaultPaged;
+        int shownPageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        int shownPage = Math.max(page, 1);
+        int pageCount = isPaged ? (int) (((long) matchCount + shownPageSize - 1) / shownPageSize) : 1;
+        if (shownPage > pageCount) {
+            throw new TypeCastException("There is no page " + shownPage + "; the list has " + pageCount
+                    + (pageCount == 1 ? " page." : " pages."));
+        }
+        int from = isPaged ? (int) Math.min((long) (shownPage - 1) * shownPageSize, matchCount) : 0;
+        int to = isPaged ? (int) Math.min((long) from + shownPageSize, matchCount) : matchCount;
+        String header = filter == null
+                ? "Here are the tasks in your list:"
+                : "Here are the matching tasks in your list:";
+        String footer = isPaged ? "\nPage " + shownPage + " of " + pageCount + "." : "";
+        if (isDefaultPaged) {
+            footer += " Use 'list 2' for the next page, or 'list all' to see every task.";
+        }
+        String shownFooter = footer;
+
+        return CommandResult.streamed(out -> {
+            out.append(header);
+            renderTaskRange(out, tasks, filter, from, to);
+            out.append(shownFooter);
+        });
+    }
+
+    /**
+     * Writes the matching tasks from the {@code from}-th to just before the {@code to}-th match,
+     * numbered by their position in the whole list so the numbers can be used with other commands.
+     */
+    private static void renderTaskRange(Appendable out, TaskList tasks, Predicate<Task> filter, int from, int to)
+            throws IOException {
+        List<Task> allTasks = tasks.getTasks();
+        // Without a filter, matches are positions, so the page can be reached directly
+        int position = filter == null ? from : 0;
+        int matchIndex = position;
+        for (Task task : filter == null ? allTasks.subList(from, to) : allTasks) {
+            position++;
+            if (filter != null && !filter.test(task)) {
+                continue;
+            }
+            if (matchIndex >= from) {
+                out.append('\n').append(Integer.toString(position)).append('.').append(task.toString())
+                        .append(" (#").append(Integer.toString(task.getId())).append(')');
+            }
+            matchIndex++;
+            if (matchIndex >= to) {
+                break;
+            }
         }
-        
+    }
+
+    private static int countMatching(TaskList tasks, Predicate<Task> filter) {
+        int count = 0;
+        for (Task task : tasks.getTasks()) {
+            if (filter.test(task)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int parseListNumber(String number) throws TypeCastException {
         try {
-            Task task = new Period(description, start, end);
-            tasks.add(task);
-            storage.saveTasks(tasks.getTasks());
-            return "Got it. I've added this task:\n  " + task.toString() + 
-                   "\nNow you have " + tasks.size() + " tasks in the list.";
-        } catch (IllegalArgumentException e) {
-            throw new TypeCastException(e.getMessage());
+            int value = Integer.parseInt(number);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
         }
+        throw new TypeCastException(LIST_USAGE_MESSAGE);
     }
 
-    private static String handleFindForGui(String input, TaskList tasks) throws TypeCastException {
-        String keyword = input.substring(5).trim();
+    private static CommandResult handleStats(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        requireNoArguments(arguments);
+        return CommandResult.of("Here is a summary of your tasks:"
+                + "\n  Total: " + tasks.size()
+                + "\n  Done: " + tasks.countCompletedTasks()
+                + "\n  Pending: " + tasks.countPendingTasks()
+                + "\n  Todos: " + tasks.countTasksOfType(Todo.class)
+                + "\n  Deadlines: " + tasks.countTasksOfType(Deadline.class)
+                + "\n  Events: " + tasks.countTasksOfType(Event.class)
+                + "\n  Periods: " + tasks.countTasksOfType(Period.class)
+                + formatSharedDescriptions(tasks.getDescriptionInterner()));
+    }
+
+    private static String formatSharedDescriptions(DescriptionInterner descriptionInterner) {
+        if (descriptionInterner == null) {
+            return "";
+        }
+        long savedBytes = descriptionInterner.getSavedBytes();
+        String saved = savedBytes < 1024 ? savedBytes + " bytes" : (savedBytes + 512) / 1024 + " KB";
+        return "\n  Repeated descriptions shared: " + descriptionInterner.getSharedCount()
+                + " (about " + saved + " saved)";
+    }
+
+    private static CommandResult handleFind(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        String keyword = arguments.trim();
         if (keyword.isEmpty()) {
             throw new TypeCastException("The search keyword cannot be empty.");
         }
-        
+
         ArrayList<Task> matchingTasks = tasks.findTasks(keyword);
-        
         if (matchingTasks.isEmpty()) {
-            return "No matching tasks found.";
-        }
-        
-        StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:\n");
-        for (int i = 0; i < matchingTasks.size(); i++) {
-            sb.append((i + 1)).append(".").append(matchingTasks.get(i).toString()).append("\n");
+            return CommandResult.of("No matching tasks found.");
         }
-        return sb.toString().trim();
+        return CommandResult.of(formatNumberedTasks("Here are the matching tasks in your list:", matchingTasks, tasks));
     }
 
-    private static String formatTaskList(TaskList tasks) {
-        if (tasks.size() == 0) {
-            return "You have no tasks in your list.";
+    /**
+     * Lists the deadlines due by the given date, using the end of the day if no time is given.
+     */
+    private static CommandResult handleDue(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        String by = arguments.trim();
+        if (by.isEmpty()) {
+            throw new TypeCastException("The format of due should be: due <date/time>");
         }
-        StringBuilder sb = new StringBuilder("Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            sb.append((i + 1)).append(".").append(tasks.get(i).toString()).append("\n");
+        LocalDateTime dueBy = parseQueryDateTime(by, 23, 59);
+        String dueByString = dueBy.format(QUERY_OUTPUT_FORMATTER);
+
+        ArrayList<Task> dueTasks = tasks.getTasksDueBy(dueBy);
+        if (dueTasks.isEmpty()) {
+            return CommandResult.of("No deadlines are due by " + dueByString + ".");
         }
-        return sb.toString().trim();
+        return CommandResult.of(
+                formatNumberedTasks("Here are the deadlines due by " + dueByString + ":", dueTasks, tasks));
     }
 
-    private static String handleMarkForGui(String input, TaskList tasks, Storage storage) 
+    /**
+     * Lists the tasks scheduled within a range, which covers whole days if no times are given.
+     */
+    private static CommandResult handleBetween(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        try {
-            int taskIndex = Integer.parseInt(input.substring(5)) - 1;
-            tasks.markTaskDone(taskIndex);
-            storage.saveTasks(tasks.getTasks());
-            return "Nice! I've marked this task as done:\n  " + tasks.get(taskIndex).toString();
-        } catch (NumberFormatException e) {
-            throw new TypeCastException("Invalid task number. Please enter a valid number.");
-        } catch (IndexOutOfBoundsException e) {
-            throw new TypeCastException("Task index out of range.");
+        int toIndex = arguments.indexOf(" /to ");
+        if (toIndex == -1) {
+            throw new TypeCastException("The format of between should be: between <start> /to <end>");
+        }
+        String start = arguments.substring(0, toIndex).trim();
+        String end = arguments.substring(toIndex + 5).trim();
+        if (start.isEmpty() || end.isEmpty()) {
+            throw new TypeCastException("The format of between should be: between <start> /to <end>");
+        }
+        LocalDateTime from = parseQueryDateTime(start, 0, 0);
+        LocalDateTime to = parseQueryDateTime(end, 23, 59);
+        if (to.isBefore(from)) {
+            throw new TypeCastException("The end of the range cannot be before its start.");
+        }
+        String range = from.format(QUERY_OUTPUT_FORMATTER) + " and " + to.format(QUERY_OUTPUT_FORMATTER);
+
+        ArrayList<Task> scheduledTasks = tasks.getTasksBetween(from, to);
+        if (scheduledTasks.isEmpty()) {
+            return CommandResult.of("No tasks are scheduled between " + range + ".");
         }
+        return CommandResult.of(
+                formatNumberedTasks("Here are the tasks scheduled between " + range + ":", scheduledTasks, tasks));
     }
 
-    private static String handleUnmarkForGui(String input, TaskList tasks, Storage storage) 
+    private static LocalDateTime parseQueryDateTime(String dateTimeStr, int defaultHour, int defaultMinute)
             throws TypeCastException {
-        try {
-            int taskIndex = Integer.parseInt(input.substring(7)) - 1;
-            tasks.markTaskNotDone(taskIndex);
-            storage.saveTasks(tasks.getTasks());
-            return "OK, I've marked this task as not done yet:\n  " + tasks.get(taskIndex).toString();
-        } catch (NumberFormatException e) {
-            throw new TypeCastException("Invalid task number. Please enter a valid number.");
-        } catch (IndexOutOfBoundsException e) {
-            throw new TypeCastException("Task index out of range.");
+        LocalDateTime dateTime = DateTimeParser.parse(dateTimeStr, defaultHour, defaultMinute);
+        if (dateTime == null) {
+            throw new TypeCastException(
+                    "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm (e.g., 2019-12-02 1800)");
         }
+        return dateTime;
+    }
+
+    /**
+     * Formats the matching tasks numbered by their position in the whole list, as {@code list} does,
+     * so the numbers can be used with other commands.
+     */
+    private static String formatNumberedTasks(String header, ArrayList<Task> matchingTasks, TaskList tasks) {
+        StringBuilder sb = new StringBuilder(header);
+        for (Task task : matchingTasks) {
+            sb.append('\n').append(tasks.indexOfId(task.getId()) + 1).append('.').append(task.toString())
+                    .append(" (#").append(task.getId()).append(')');
+        }
+        return sb.toString();
     }
 
-    private static String handleDeleteForGui(String input, TaskList tasks, Storage storage) 
+    private static CommandResult handleMark(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
+        int[] indices = parseTaskIndices(arguments, tasks);
+        tasks.markTasksDone(indices);
+        storage.recordMark(indices, tasks.getTasks());
+        if (indices.length == 1) {
+            return CommandResult.of("Nice! I've marked this task as done:\n  " + tasks.get(indices[0]).toString());
+        }
+        return CommandResult.of(formatAffectedTasks(
+                "Nice! I've marked these " + indices.length + " tasks as done:", tasks, indices));
+    }
+
+    private static CommandResult handleUnmark(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        int[] indices = parseTaskIndices(arguments, tasks);
+        tasks.markTasksNotDone(indices);
+        storage.recordUnmark(indices, tasks.getTasks());
+        if (indices.length == 1) {
+            return CommandResult.of("OK, I've marked this task as not done yet:\n  "
+                    + tasks.get(indices[0]).toString());
+        }
+        return CommandResult.of(formatAffectedTasks(
+                "OK, I've marked these " + indices.length + " tasks as not done yet:", tasks, indices));
+    }
+
+    private static CommandResult handleDelete(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        int[] indices = parseTaskIndices(arguments, tasks);
+        ArrayList<Task> removedTasks = tasks.deleteAll(indices);
+        storage.recordDelete(indices, tasks.getTasks());
+
+        StringBuilder sb = new StringBuilder(removedTasks.size() == 1
+                ? "Noted. I've removed this task:"
+                : "Noted. I've removed these " + removedTasks.size() + " tasks:");
+        for (Task removedTask : removedTasks) {
+            sb.append("\n  ").append(removedTask.toString());
+        }
+        sb.append("\nNow you have ").append(tasks.size()).append(" tasks in the list.");
+        return CommandResult.of(sb.toString());
+    }
+
+    private static String formatAffectedTasks(String header, TaskList tasks, int[] indices) {
+        StringBuilder sb = new StringBuilder(header);
+        for (int index : indices) {
+            sb.append("\n  ").append(tasks.get(index).toString());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses 1-based task numbers, ranges and task IDs, such as {@code 3-40,52,#7}, into 0-based indices.
+     * All numbers refer to the list as it is before the command runs.
+     *
+     * @param arguments The task numbers, ranges and IDs, separated by commas.
+     * @param tasks The task list the numbers and IDs refer to.
+     * @return The distinct indices in ascending order.
+     * @throws TypeCastException If a number is malformed or out of range, or no task has an ID.
+     */
+    private static int[] parseTaskIndices(String arguments, TaskList tasks) throws TypeCastException {
+        int size = tasks.size();
+        BitSet selected = new BitSet(size);
+        for (String part : arguments.split(",", -1)) {
+            if (part.trim().startsWith("#")) {
+                int id = parseTaskNumber(part.trim().substring(1));
+                int index = tasks.indexOfId(id);
+                if (index == -1) {
+                    throw new TypeCastException("There is no task with ID #" + id + ".");
+                }
+                selected.set(index);
+                continue;
+            }
+            int dashIndex = part.indexOf('-');
+            int first = parseTaskNumber(dashIndex == -1 ? part : part.substring(0, dashIndex));
+            int last = dashIndex == -1 ? first : parseTaskNumber(part.substring(dashIndex + 1));
+            if (first > last) {
+                throw new TypeCastException("Invalid task range: " + part.trim());
+            }
+            if (first < 1 || last > size) {
+                throw new TypeCastException("Task index out of range.");
+            }
+            selected.set(first - 1, last);
+        }
+        return selected.stream().toArray();
+    }
+
+    private static int parseTaskNumber(String number) throws TypeCastException {
         try {
-            int taskIndex = Integer.parseInt(input.substring(7)) - 1;
-            Task removedTask = tasks.delete(taskIndex);
-            storage.saveTasks(tasks.getTasks());
-            return "Noted. I've removed this task:\n  " + removedTask.toString() + 
-                   "\nNow you have " + tasks.size() + " tasks in the list.";
+            return Integer.parseInt(number.trim());
         } catch (NumberFormatException e) {
             throw new TypeCastException("Invalid task number. Please enter a valid number.");
         }
     }
 
-    private static String handleTodoForGui(String input, TaskList tasks, Storage storage) 
+    private static CommandResult handleTodo(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        String description = input.substring(5).trim();
-        if (description.isEmpty()) {
-            throw new TypeCastException("The description of a todo cannot be empty.");
-        }
-        Task task = new Todo(description);
-        tasks.add(task);
-        storage.saveTasks(tasks.getTasks());
-        return "Got it. I've added this task:\n  " + task.toString() + 
-               "\nNow you have " + tasks.size() + " tasks in the list.";
+        return addTask(createTodo(arguments), tasks, storage);
     }
 
-    private static String handleDeadlineForGui(String input, TaskList tasks, Storage storage) 
+    private static CommandResult handleDeadline(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        String rest = input.substring(9);
-        int byIndex = rest.indexOf(" /by ");
+        int byIndex = arguments.indexOf(" /by ");
         if (byIndex == -1) {
             throw new TypeCastException(
                 "The format of deadline should be: deadline <description> /by <date/time>");
         }
-        String description = rest.substring(0, byIndex).trim();
-        String by = rest.substring(byIndex + 5).trim();
+        String description = arguments.substring(0, byIndex);
+        String by = arguments.substring(byIndex + 5);
+        return addTask(createDeadline(description, by), tasks, storage);
+    }
+
+    private static CommandResult handleEvent(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        int fromIndex = arguments.indexOf(" /from ");
+        int toIndex = arguments.indexOf(" /to ");
+        // The start must come before /to, or the parts would be cut out of order
+        if (fromIndex == -1 || toIndex == -1 || toIndex < fromIndex + 7) {
+            throw new TypeCastException(
+                "The format of event should be: event <description> /from <start> /to <end>");
+        }
+        String description = arguments.substring(0, fromIndex);
+        String from = arguments.substring(fromIndex + 7, toIndex);
+        String to = arguments.substring(toIndex + 5);
+        return addTask(createEvent(description, from, to), tasks, storage);
+    }
+
+    private static CommandResult handlePeriod(String arguments, TaskList tasks, Storage storage)
+            throws TypeCastException {
+        int withinIndex = arguments.indexOf(" /within ");
+        int toIndex = arguments.indexOf(" /to ");
+        if (withinIndex == -1 || toIndex == -1 || toIndex < withinIndex + 9) {
+            throw new TypeCastException(
+                "The format of period should be: period <description> /within <start> /to <end>");
+        }
+        String description = arguments.substring(0, withinIndex);
+        String start = arguments.substring(withinIndex + 9, toIndex);
+        String end = arguments.substring(toIndex + 5);
+        return addTask(createPeriod(description, start, end), tasks, storage);
+    }
+
+    /**
+     * Checks the parts of a todo, typed as a command or read from an import file, and creates it.
+     * The create methods for the other task types do the same; the parts may have surrounding whitespace.
+     */
+    private static Todo createTodo(String description) throws TypeCastException {
+        description = description.trim();
+        if (description.isEmpty()) {
+            throw new TypeCastException("The description of a todo cannot be empty.");
+        }
+        checkDescription(description);
+        return new Todo(description);
+    }
+
+    /**
+     * Rejects a description with control characters. Line breaks would split the task's record
+     * in the data file and the journal, and imports can decode them from escapes.
+     */
+    private static void checkDescription(String description) throws TypeCastException {
+        for (int i = 0; i < description.length(); i++) {
+            if (Character.isISOControl(description.charAt(i))) {
+                throw new TypeCastException(
+                        "The description cannot contain line breaks or other control characters.");
+            }
+        }
+    }
+
+    private static Deadline createDeadline(String description, String by) throws TypeCastException {
+        description = description.trim();
+        by = by.trim();
         if (description.isEmpty()) {
             throw new TypeCastException("The description of a deadline cannot be empty.");
         }
+        checkDescription(description);
         if (by.isEmpty()) {
             throw new TypeCastException("The deadline date/time cannot be empty.");
         }
         try {
-            Task task = new Deadline(description, by);
-            tasks.add(task);
-            storage.saveTasks(tasks.getTasks());
-            return "Got it. I've added this task:\n  " + task.toString() + 
-                   "\nNow you have " + tasks.size() + " tasks in the list.";
+            return new Deadline(description, by);
         } catch (IllegalArgumentException e) {
             throw new TypeCastException(e.getMessage());
         }
     }
 
-    private static String handleEventForGui(String input, TaskList tasks, Storage storage) 
-            throws TypeCastException {
-        String rest = input.substring(6);
-        int fromIndex = rest.indexOf(" /from ");
-        int toIndex = rest.indexOf(" /to ");
-        if (fromIndex == -1 || toIndex == -1) {
-            throw new TypeCastException(
-                "The format of event should be: event <description> /from <start> /to <end>");
-        }
-        String description = rest.substring(0, fromIndex).trim();
-        String from = rest.substring(fromIndex + 7, toIndex).trim();
-        String to = rest.substring(toIndex + 5).trim();
+    private static Event createEvent(String description, String from, String to) throws TypeCastException {
+        description = description.trim();
+        from = from.trim();
+        to = to.trim();
         if (description.isEmpty()) {
             throw new TypeCastException("The description of an event cannot be empty.");
         }
+        checkDescription(description);
         if (from.isEmpty()) {
             throw new TypeCastException("The event start date/time cannot be empty.");
         }
@@ -217,224 +555,177 @@ public class Parser {
             throw new TypeCastException("The event end date/time cannot be empty.");
         }
         try {
-            Task task = new Event(description, from, to);
-            tasks.add(task);
-            storage.saveTasks(tasks.getTasks());
-            return "Got it. I've added this task:\n  " + task.toString() + 
-                   "\nNow you have " + tasks.size() + " tasks in the list.";
+            return new Event(description, from, to);
         } catch (IllegalArgumentException e) {
             throw new TypeCastException(e.getMessage());
         }
     }
 
-    public static boolean parseCommand(String input, TaskList tasks, Ui ui, Storage storage) 
-            throws TypeCastException {
-        
-        if (input.equals("bye")) {
-            return false;
-        } else if (input.equals("list")) {
-            ui.showTaskList(tasks);
-        } else if (input.startsWith("find ")) {
-            handleFind(input, tasks, ui);
-        } else if (input.startsWith("mark ")) {
-            handleMark(input, tasks, ui, storage);
-        } else if (input.startsWith("unmark ")) {
-            handleUnmark(input, tasks, ui, storage);
-        } else if (input.startsWith("delete ")) {
-            handleDelete(input, tasks, ui, storage);
-        } else if (input.startsWith("todo ")) {
-            handleTodo(input, tasks, ui, storage);
-        } else if (input.startsWith("deadline ")) {
-            handleDeadline(input, tasks, ui, storage);
-        } else if (input.startsWith("event ")) {
-            handleEvent(input, tasks, ui, storage);
-        } else if (input.startsWith("period ")) {
-            handlePeriod(input, tasks, ui, storage);
-        } else if (input.equals("todo") || input.equals("deadline") || input.equals("event") || input.equals("period")) {
-            handleEmptyCommand(input);
-        } else {
-            throw new TypeCastException("Sorry, that is not a valid command!");
-        }
-        
-        return true;
-    }
-
-    private static void handlePeriod(String input, TaskList tasks, Ui ui, Storage storage) 
-            throws TypeCastException {
-        String rest = input.substring(7);
-        int withinIndex = rest.indexOf(" /within ");
-        int toIndex = rest.indexOf(" /to ");
-        
-        if (withinIndex == -1 || toIndex == -1) {
-            throw new TypeCastException(
-                "The format of period should be: period <description> /within <start> /to <end>");
-        }
-        
-        String description = rest.substring(0, withinIndex).trim();
-        String start = rest.substring(withinIndex + 9, toIndex).trim();
-        String end = rest.substring(toIndex + 5).trim();
-        
+    private static Period createPeriod(String description, String start, String end) throws TypeCastException {
+        description = description.trim();
+        start = start.trim();
+        end = end.trim();
         if (description.isEmpty()) {
             throw new TypeCastException("The description of a period cannot be empty.");
         }
+        checkDescription(description);
         if (start.isEmpty()) {
             throw new TypeCastException("The period start date/time cannot be empty.");
         }
         if (end.isEmpty()) {
             throw new TypeCastException("The period end date/time cannot be empty.");
         }
-        
         try {
-            Task task = new Period(description, start, end);
-            tasks.add(task);
-            ui.showTaskAdded(task, tasks.size());
-            storage.saveTasks(tasks.getTasks());
+            return new Period(description, start, end);
         } catch (IllegalArgumentException e) {
             throw new TypeCastException(e.getMessage());
         }
     }
 
-    private static void handleFind(String input, TaskList tasks, Ui ui) throws TypeCastException {
-        String keyword = input.substring(5).trim();
-        if (keyword.isEmpty()) {
-            throw new TypeCastException("The search keyword cannot be empty.");
-        }
-        
-        ArrayList<Task> matchingTasks = tasks.findTasks(keyword);
-        
-        System.out.println("____________________________________________________________");
-        if (matchingTasks.isEmpty()) {
-            System.out.println("No matching tasks found.");
-        } else {
-            System.out.println("Here are the matching tasks in your list:");
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                System.out.println((i + 1) + "." + matchingTasks.get(i).toString());
-            }
-        }
-        System.out.println("____________________________________________________________");
-    }
-
-    private static void handleMark(String input, TaskList tasks, Ui ui, Storage storage) 
+    /**
+     * Adds the tasks in a CSV or JSON Lines file, reading it one record at a time.
+     * Records are checked like the commands that add tasks; invalid records are reported and skipped.
+     * The imported tasks are saved once, at the end.
+     */
+    private static CommandResult handleImport(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        try {
-            int taskIndex = Integer.parseInt(input.substring(5)) - 1;
-            tasks.markTaskDone(taskIndex);
-            ui.showTaskMarked(tasks.get(taskIndex));
-            storage.saveTasks(tasks.getTasks());
-        } catch (NumberFormatException e) {
-            throw new TypeCastException("Invalid task number. Please enter a valid number.");
-        } catch (IndexOutOfBoundsException e) {
-            throw new TypeCastException("Task index out of range.");
+        String fileName = arguments.trim();
+        if (fileName.isEmpty()) {
+            throw new TypeCastException("The format of import should be: import <file>");
         }
-    }
 
-    private static void handleUnmark(String input, TaskList tasks, Ui ui, Storage storage) 
-            throws TypeCastException {
-        try {
-            int taskIndex = Integer.parseInt(input.substring(7)) - 1;
-            tasks.markTaskNotDone(taskIndex);
-            ui.showTaskUnmarked(tasks.get(taskIndex));
-            storage.saveTasks(tasks.getTasks());
-        } catch (NumberFormatException e) {
-            throw new TypeCastException("Invalid task number. Please enter a valid number.");
-        } catch (IndexOutOfBoundsException e) {
-            throw new TypeCastException("Task index out of range.");
+        int importedCount = 0;
+        int skippedCount = 0;
+        StringBuilder errors = new StringBuilder();
+        storage.beginBatch();
+        try (TaskExchangeReader reader = TaskExchangeReader.open(Paths.get(fileName),
+                ExchangeFormat.forFile(fileName))) {
+            while (true) {
+                Task task;
+                try {
+                    ExchangeRecord record = reader.next();
+                    if (record == null) {
+                        break;
+                    }
+                    task = createTask(record);
+                } catch (TypeCastException e) {
+                    skippedCount++;
+                    if (skippedCount <= MAX_REPORTED_IMPORT_ERRORS) {
+                        errors.append("\n  Line ").append(reader.getLineNumber()).append(": ").append(e.getMessage());
+                    }
+                    continue;
+                }
+                tasks.add(task);
+                storage.recordAdd(task, tasks.getTasks());
+                importedCount++;
+            }
+        } catch (NoSuchFileException e) {
+            throw new TypeCastException("There is no file named " + fileName + ".");
+        } catch (IOException | InvalidPathException e) {
+            String added = importedCount > 0
+                    ? " The " + importedCount + " task(s) read before the error were added."
+                    : "";
+            throw new TypeCastException("Could not read " + fileName + ": " + e.getMessage() + added);
+        } finally {
+            storage.endBatch(tasks.getTasks());
         }
-    }
 
-    private static void handleDelete(String input, TaskList tasks, Ui ui, Storage storage) 
-            throws TypeCastException {
-        try {
-            int taskIndex = Integer.parseInt(input.substring(7)) - 1;
-            Task removedTask = tasks.delete(taskIndex);
-            ui.showTaskDeleted(removedTask, tasks.size());
-            storage.saveTasks(tasks.getTasks());
-        } catch (NumberFormatException e) {
-            throw new TypeCastException("Invalid task number. Please enter a valid number.");
+        StringBuilder sb = new StringBuilder("Imported ").append(importedCount).append(" task(s) from ")
+                .append(fileName).append(".");
+        if (skippedCount > 0) {
+            sb.append("\nSkipped ").append(skippedCount).append(" invalid record(s):").append(errors);
+            if (skippedCount > MAX_REPORTED_IMPORT_ERRORS) {
+                sb.append("\n  ...and ").append(skippedCount - MAX_REPORTED_IMPORT_ERRORS).append(" more.");
+            }
         }
+        sb.append("\nNow you have ").append(tasks.size()).append(" tasks in the list.");
+        return CommandResult.of(sb.toString());
     }
 
-    private static void handleTodo(String input, TaskList tasks, Ui ui, Storage storage) 
-            throws TypeCastException {
-        String description = input.substring(5).trim();
-        if (description.isEmpty()) {
-            throw new TypeCastException("The description of a todo cannot be empty.");
-        }
-        Task task = new Todo(description);
-        tasks.add(task);
-        ui.showTaskAdded(task, tasks.size());
-        storage.saveTasks(tasks.getTasks());
+    private static Task createTask(ExchangeRecord record) throws TypeCastException {
+        Task task;
+        switch (record.getType()) {
+            case "todo":
+                task = createTodo(record.getDescription());
+                break;
+            case "deadline":
+                task = createDeadline(record.getDescription(), record.getStart());
+                break;
+            case "event":
+                task = createEvent(record.getDescription(), record.getStart(), record.getEnd());
+                break;
+            case "period":
+                task = createPeriod(record.getDescription(), record.getStart(), record.getEnd());
+                break;
+            default:
+                throw new TypeCastException("Unknown task type: " + record.getType()
+                        + ". It should be todo, deadline, event or period.");
+        }
+        if (record.isDone()) {
+            task.markDone();
+        }
+        return task;
     }
 
-    private static void handleDeadline(String input, TaskList tasks, Ui ui, Storage storage) 
+    /**
+     * Writes every task to a CSV or JSON Lines file. Without a format, it is guessed from the file name.
+     */
+    private static CommandResult handleExport(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        String rest = input.substring(9);
-        int byIndex = rest.indexOf(" /by ");
-        if (byIndex == -1) {
-            throw new TypeCastException(
-                "The format of deadline should be: deadline <description> /by <date/time>");
+        String fileName = arguments.trim();
+        if (fileName.isEmpty()) {
+            throw new TypeCastException(EXPORT_USAGE_MESSAGE);
         }
-        String description = rest.substring(0, byIndex).trim();
-        String by = rest.substring(byIndex + 5).trim();
-        if (description.isEmpty()) {
-            throw new TypeCastException("The description of a deadline cannot be empty.");
+
+        ExchangeFormat format = null;
+        int lastSpace = fileName.lastIndexOf(' ');
+        if (lastSpace != -1) {
+            format = ExchangeFormat.fromName(fileName.substring(lastSpace + 1));
         }
-        if (by.isEmpty()) {
-            throw new TypeCastException("The deadline date/time cannot be empty.");
+        if (format != null) {
+            fileName = fileName.substring(0, lastSpace).trim();
+        } else {
+            format = ExchangeFormat.forFile(fileName);
         }
+
         try {
-            Task task = new Deadline(description, by);
-            tasks.add(task);
-            ui.showTaskAdded(task, tasks.size());
-            storage.saveTasks(tasks.getTasks());
-        } catch (IllegalArgumentException e) {
-            throw new TypeCastException(e.getMessage());
+            storage.exportTasks(tasks.getTasks(), fileName, format);
+        } catch (IOException | InvalidPathException e) {
+            throw new TypeCastException("Could not export to " + fileName + ": " + e.getMessage());
         }
+        return CommandResult.of("Exported " + tasks.size() + " task(s) to " + fileName + " as "
+                + format.name() + ".");
     }
 
-    private static void handleEvent(String input, TaskList tasks, Ui ui, Storage storage) 
+    /**
+     * Starts or ends a batch, in which changes are only saved once at the end.
+     */
+    private static CommandResult handleBatch(String arguments, TaskList tasks, Storage storage)
             throws TypeCastException {
-        String rest = input.substring(6);
-        int fromIndex = rest.indexOf(" /from ");
-        int toIndex = rest.indexOf(" /to ");
-        if (fromIndex == -1 || toIndex == -1) {
-            throw new TypeCastException(
-                "The format of event should be: event <description> /from <start> /to <end>");
-        }
-        String description = rest.substring(0, fromIndex).trim();
-        String from = rest.substring(fromIndex + 7, toIndex).trim();
-        String to = rest.substring(toIndex + 5).trim();
-        if (description.isEmpty()) {
-            throw new TypeCastException("The description of an event cannot be empty.");
-        }
-        if (from.isEmpty()) {
-            throw new TypeCastException("The event start date/time cannot be empty.");
-        }
-        if (to.isEmpty()) {
-            throw new TypeCastException("The event end date/time cannot be empty.");
-        }
-        try {
-            Task task = new Event(description, from, to);
-            tasks.add(task);
-            ui.showTaskAdded(task, tasks.size());
-            storage.saveTasks(tasks.getTasks());
-        } catch (IllegalArgumentException e) {
-            throw new TypeCastException(e.getMessage());
+        switch (arguments.trim()) {
+            case "begin":
+                storage.beginBatch();
+                return CommandResult.of("Batch started. Your changes will be saved when you enter: batch end");
+            case "end":
+                if (!storage.isInBatch()) {
+                    throw new TypeCastException("There is no batch in progress.");
+                }
+                storage.endBatch(tasks.getTasks());
+                if (storage.isInBatch()) {
+                    // Only the outermost batch saves
+                    return CommandResult.of("Inner batch ended. Your changes will be saved when the outer batch "
+                            + "ends with: batch end");
+                }
+                return CommandResult.of("Batch ended. Your changes have been saved.");
+            default:
+                throw new TypeCastException("The format of batch should be: batch begin or batch end");
         }
     }
 
-    private static void handleEmptyCommand(String input) throws TypeCastException {
-        if (input.equals("todo")) {
-            throw new TypeCastException("The description of a todo cannot be empty.");
-        } else if (input.equals("deadline")) {
-            throw new TypeCastException(
-                "The format of deadline should be: deadline <description> /by <date/time>");
-        } else if (input.equals("period")) {
-            throw new TypeCastException(
-                "The format of period should be: period <description> /within <start> /to <end>");
-        } else {
-            throw new TypeCastException(
-                "The format of event should be: event <description> /from <start> /to <end>");
-        }
+    private static CommandResult addTask(Task task, TaskList tasks, Storage storage) {
+        tasks.add(task);
+        storage.recordAdd(task, tasks.getTasks());
+        return CommandResult.of("Got it. I've added this task (#" + task.getId() + "):\n  " + task.toString()
+                + "\nNow you have " + tasks.size() + " tasks in the list.");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package typecast.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files crash-safely: the new contents are written to a sibling temp file,
+ * forced to disk and then moved over the original in one step, so readers only ever see
+ * the old or the new file, never a partially written one.
+ */
+final class AtomicFileWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the contents of a file to a stream.
+     */
+    interface Contents {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Replaces the target file with the given contents.
+     *
+     * @param target The file to replace.
+     * @param contents Writes the new contents.
+     * @param backupCount The number of previous versions to keep as {@code <target>.1} to {@code <target>.N}.
+     * @throws IOException If the file cannot be written. The original file is left untouched.
+     */
+    static void write(Path target, Contents contents, int backupCount) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            contents.writeTo(out);
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (backupCount > 0 && Files.exists(target)) {
+            rotateBackups(target, backupCount);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Shifts {@code <target>.i} to {@code <target>.(i + 1)}, dropping the oldest,
+     * and keeps the current target as {@code <target>.1}.
+     */
+    private static void rotateBackups(Path target, int backupCount) throws IOException {
+        Files.deleteIfExists(backupPath(target, backupCount));
+        for (int i = backupCount - 1; i >= 1; i--) {
+            Path backup = backupPath(target, i);
+            if (Files.exists(backup)) {
+                Files.move(backup, backupPath(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        // A hard link keeps the old contents once the target is replaced, without copying them
+        Path newest = backupPath(target, 1);
+        try {
+            Files.createLink(newest, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, newest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static Path backupPath(Path target, int generation) {
+        return target.resolveSibling(target.getFileName() + "." + generation);
+    }
+
+    /**
+     * Makes the rename durable on file systems that support syncing directories.
+     */
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the rename itself is still atomic
+        }
+    }
+}
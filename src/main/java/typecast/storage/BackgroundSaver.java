@@ -0,0 +1,157 @@
+package typecast.storage;
+
+import typecast.task.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A write-behind saver that performs snapshot and journal writes on a background thread.
+ * Work submitted within the coalescing window is merged into a single flush: a newer snapshot
+ * replaces the pending one along with any journal records queued before it, and journal records
+ * are appended in one write. All writes happen in submission order on one thread at a time.
+ */
+class BackgroundSaver {
+
+    /**
+     * The writes the saver performs on behalf of {@link Storage}.
+     */
+    interface Sink {
+        void writeSnapshot(List<Task> tasks) throws IOException;
+
+        void appendRecords(List<String> records) throws IOException;
+    }
+
+    private final Sink sink;
+    private final long maxDelayMillis;
+    private final Consumer<String> errorReporter;
+    private final Object ioLock = new Object();
+    private final Thread shutdownHook;
+
+    private List<Task> pendingSnapshot;
+    private ArrayList<String> pendingRecords = new ArrayList<>();
+    private boolean hasPending;
+    private long firstPendingAt;
+    private boolean isClosed;
+
+    /**
+     * Starts a saver thread and registers a shutdown hook that flushes pending work.
+     *
+     * @param sink The writes to perform.
+     * @param maxDelayMillis The longest time submitted work may wait before it is written.
+     * @param errorReporter Receives a message for every failed flush.
+     */
+    BackgroundSaver(Sink sink, long maxDelayMillis, Consumer<String> errorReporter) {
+        assert maxDelayMillis >= 0 : "Delay must not be negative";
+        this.sink = sink;
+        this.maxDelayMillis = maxDelayMillis;
+        this.errorReporter = errorReporter;
+
+        Thread thread = new Thread(this::run, "typecast-saver");
+        thread.setDaemon(true);
+        thread.start();
+        shutdownHook = new Thread(this::flush, "typecast-saver-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queues a full snapshot, superseding any pending snapshot and journal records.
+     *
+     * @param tasks A copy of the tasks that will not be modified afterwards.
+     */
+    synchronized void submitSnapshot(List<Task> tasks) {
+        pendingSnapshot = tasks;
+        pendingRecords.clear();
+        markPending();
+    }
+
+    /**
+     * Queues a journal record to be appended after any pending snapshot.
+     *
+     * @param record The journal record.
+     */
+    synchronized void submitRecord(String record) {
+        pendingRecords.add(record);
+        markPending();
+    }
+
+    private void markPending() {
+        if (!hasPending) {
+            hasPending = true;
+            firstPendingAt = System.currentTimeMillis();
+            notifyAll();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    while (!hasPending && !isClosed) {
+                        wait();
+                    }
+                    long remaining = firstPendingAt + maxDelayMillis - System.currentTimeMillis();
+                    while (hasPending && !isClosed && remaining > 0) {
+                        wait(remaining);
+                        remaining = firstPendingAt + maxDelayMillis - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (isClosed) {
+                    return;
+                }
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending work on the calling thread, waiting for any flush already in progress.
+     */
+    void flush() {
+        synchronized (ioLock) {
+            List<Task> snapshot;
+            List<String> records;
+            synchronized (this) {
+                if (!hasPending) {
+                    return;
+                }
+                snapshot = pendingSnapshot;
+                records = pendingRecords;
+                pendingSnapshot = null;
+                pendingRecords = new ArrayList<>();
+                hasPending = false;
+            }
+
+            try {
+                if (snapshot != null) {
+                    sink.writeSnapshot(snapshot);
+                }
+                if (!records.isEmpty()) {
+                    sink.appendRecords(records);
+                }
+            } catch (IOException e) {
+                errorReporter.accept("Error saving tasks in the background: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flushes pending work and stops the saver thread.
+     */
+    void close() {
+        synchronized (this) {
+            isClosed = true;
+            notifyAll();
+        }
+        flush();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down; the hook flushes on its own
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package typecast.storage;
+
+import typecast.exception.TypeCastException;
+import typecast.task.Deadline;
+import typecast.task.Event;
+import typecast.task.Period;
+import typecast.task.Task;
+import typecast.task.Todo;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes the versioned binary snapshot format.
+ * The file starts with the magic bytes {@code TCBS}, a version byte, the task count, the ID the next new task
+ * will get and the generation of the last journal folded into the snapshot, followed by one record per task:
+ * <pre>
+ * type byte ('T', 'D', 'E' or 'P')
+ * done byte (0 or 1)
+ * int task ID, or 0 if the task has none
+ * 0, 1 or 2 longs of epoch minutes (UTC), depending on the type
+ * int length, then the UTF-8 bytes of the description
+ * </pre>
+ * Version 1 snapshots, which have no IDs, and version 2 snapshots, which have no journal generation,
+ * can still be read.
+ */
+final class BinarySnapshot {
+    private static final byte[] MAGIC = {'T', 'C', 'B', 'S'};
+    private static final byte VERSION = 3;
+    private static final byte VERSION_WITHOUT_JOURNAL_GENERATION = 2;
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final int MAX_DESCRIPTION_BYTES = 1 << 20;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * The fields stored before the task records.
+     */
+    static final class Header {
+        /** The ID the next new task should get, or 0 if the snapshot does not record it. */
+        final int nextId;
+        /** The generation of the last journal folded into the snapshot, or 0 if none is recorded. */
+        final int journalGeneration;
+
+        Header(int nextId, int journalGeneration) {
+            this.nextId = nextId;
+            this.journalGeneration = journalGeneration;
+        }
+    }
+
+    /**
+     * Writes all tasks as a snapshot to the given stream, leaving it open.
+     *
+     * @param stream The stream to write to.
+     * @param tasks The tasks to write.
+     * @param nextId The ID the next new task will get.
+     * @param journalGeneration The generation of the last journal folded into the tasks.
+     * @throws IOException If the stream cannot be written.
+     */
+    static void write(OutputStream stream, List<Task> tasks, int nextId, int journalGeneration)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+        out.writeInt(nextId);
+        out.writeInt(journalGeneration);
+        for (Task task : tasks) {
+            writeTask(out, task);
+        }
+        out.flush();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        if (task instanceof Deadline) {
+            out.writeByte('D');
+            out.writeBoolean(task.isDone());
+            out.writeInt(task.getId());
+            out.writeLong(toEpochMinutes(((Deadline) task).getBy()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            out.writeByte('E');
+            out.writeBoolean(task.isDone());
+            out.writeInt(task.getId());
+            out.writeLong(toEpochMinutes(event.getFrom()));
+            out.writeLong(toEpochMinutes(event.getTo()));
+        } else if (task instanceof Period) {
+            Period period = (Period) task;
+            out.writeByte('P');
+            out.writeBoolean(task.isDone());
+            out.writeInt(task.getId());
+            out.writeLong(toEpochMinutes(period.getStartDate()));
+            out.writeLong(toEpochMinutes(period.getEndDate()));
+        } else {
+            out.writeByte('T');
+            out.writeBoolean(task.isDone());
+            out.writeInt(task.getId());
+        }
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(description.length);
+        out.write(description);
+    }
+
+    /**
+     * Reads every task in the snapshot into the given list.
+     * If the file is truncated, the tasks read before the damaged record are kept.
+     *
+     * @param path The snapshot file.
+     * @param tasks The list to append the tasks to.
+     * @return The header of the snapshot.
+     * @throws IOException If the file cannot be read.
+     * @throws TypeCastException If the file is not a snapshot, has an unsupported version or is corrupted.
+     */
+    static Header read(Path path, List<Task> tasks) throws IOException, TypeCastException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new TypeCastException("Not a binary task snapshot: " + path);
+            }
+            byte version = in.readByte();
+            if (version != VERSION && version != VERSION_WITHOUT_JOURNAL_GENERATION
+                    && version != VERSION_WITHOUT_IDS) {
+                throw new TypeCastException("Unsupported binary snapshot version: " + version);
+            }
+            boolean hasIds = version != VERSION_WITHOUT_IDS;
+
+            int count = in.readInt();
+            int nextId = hasIds ? in.readInt() : 0;
+            int journalGeneration = version == VERSION ? in.readInt() : 0;
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in, i + 1, hasIds));
+            }
+            return new Header(nextId, journalGeneration);
+        }
+    }
+
+    private static Task readTask(DataInputStream in, int recordNumber, boolean hasIds)
+            throws IOException, TypeCastException {
+        byte type = in.readByte();
+        boolean isDone = in.readBoolean();
+        int id = hasIds ? in.readInt() : 0;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        switch (type) {
+            case 'T':
+                break;
+            case 'D':
+                start = fromEpochMinutes(in.readLong());
+                break;
+            case 'E':
+            case 'P':
+                start = fromEpochMinutes(in.readLong());
+                end = fromEpochMinutes(in.readLong());
+                break;
+            default:
+                throw new TypeCastException("Unknown task type in record " + recordNumber + ": " + type);
+        }
+
+        int length = in.readInt();
+        if (length < 0 || length > MAX_DESCRIPTION_BYTES) {
+            throw new TypeCastException("Invalid description length in record " + recordNumber + ": " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        String description = new String(bytes, StandardCharsets.UTF_8);
+
+        Task task;
+        switch (type) {
+            case 'D':
+                task = new Deadline(description, start);
+                break;
+            case 'E':
+                task = new Event(description, start, end);
+                break;
+            case 'P':
+                task = new Period(description, start, end);
+                break;
+            default:
+                task = new Todo(description);
+                break;
+        }
+        if (isDone) {
+            task.markDone();
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,90 @@
+package typecast.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a file for changes through a {@link WatchService} on its directory.
+ * The watching thread only notes that the file changed; the owner checks with {@link #pollChange()}
+ * on its own thread, so tasks are never touched by the watching thread.
+ * Every change is noted, including the owner's own saves, which the owner tells apart by content.
+ */
+class DataFileWatcher implements Closeable {
+    private final WatchService watchService;
+    private final Path fileName;
+    private final Thread thread;
+    private volatile boolean hasChanged;
+
+    /**
+     * Starts watching the file on a daemon thread.
+     *
+     * @param file The file to watch. Its directory must exist.
+     * @throws IOException If the directory cannot be watched.
+     */
+    DataFileWatcher(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        fileName = file.getFileName();
+        watchService = directory.getFileSystem().newWatchService();
+        try {
+            // Editors and atomic saves often replace the file, which shows up as a create rather than a modify
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        thread = new Thread(this::run, "typecast-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Events were dropped on overflow, so the file may have changed among them
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        hasChanged = true;
+                    }
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    /**
+     * Returns whether the file changed since the last call, and clears the flag.
+     */
+    boolean pollChange() {
+        if (!hasChanged) {
+            return false;
+        }
+        hasChanged = false;
+        return true;
+    }
+
+    /**
+     * Stops watching and waits for the watching thread to end.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
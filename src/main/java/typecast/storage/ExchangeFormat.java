@@ -0,0 +1,36 @@
+package typecast.storage;
+
+/**
+ * The file formats tasks can be imported from and exported to.
+ * Both hold one task per line, with the fields {@code id}, {@code type}, {@code done}, {@code description},
+ * {@code start} and {@code end}. Dates use the same {@code yyyy-MM-dd HHmm} form as commands;
+ * a deadline's due date is its {@code start}.
+ */
+public enum ExchangeFormat {
+    /** Comma-separated values with a header row naming the fields, in any order. */
+    CSV,
+    /** JSON Lines: one JSON object per line. */
+    JSONL;
+
+    /**
+     * Finds the format with the given name, ignoring case.
+     *
+     * @return The format, or null if there is none by that name.
+     */
+    public static ExchangeFormat fromName(String name) {
+        for (ExchangeFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Guesses the format from a file name: JSON Lines for {@code .jsonl} and {@code .json} files, CSV otherwise.
+     */
+    public static ExchangeFormat forFile(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+        return lowerCaseName.endsWith(".jsonl") || lowerCaseName.endsWith(".json") ? JSONL : CSV;
+    }
+}
@@ -0,0 +1,52 @@
+package typecast.storage;
+
+/**
+ * The fields of one task read from an import file, before they are checked and turned into a task.
+ */
+public class ExchangeRecord {
+    private final String type;
+    private final boolean isDone;
+    private final String description;
+    private final String start;
+    private final String end;
+
+    ExchangeRecord(String type, boolean isDone, String description, String start, String end) {
+        this.type = type;
+        this.isDone = isDone;
+        this.description = description;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the task type in lower case, such as {@code deadline}.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    /**
+     * Returns the description, or an empty string if the record has none.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the start date, or due date for a deadline, or an empty string if the record has none.
+     */
+    public String getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end date, or an empty string if the record has none.
+     */
+    public String getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,359 @@
+package typecast.storage;
+
+import typecast.exception.TypeCastException;
+import typecast.task.DateTimeParser;
+import typecast.task.Deadline;
+import typecast.task.DescriptionInterner;
+import typecast.task.Event;
+import typecast.task.Period;
+import typecast.task.Task;
+import typecast.task.Todo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the text data file through a memory-mapped buffer, scanning records directly from bytes.
+ * Only the description and the parsed dates are allocated for each well-formed record;
+ * any record the byte scanner does not recognise is decoded and handed to {@link TaskRecordFormat},
+ * so the results and warnings are the same as the line-based loader.
+ */
+final class MappedTaskFileReader {
+    private static final byte[] SEPARATOR = {' ', '|', ' '};
+    private static final int MAX_FIELDS = 6;
+    private static final int DATE_TIME_LENGTH = "yyyy-MM-dd HHmm".length();
+
+    private final ByteBuffer buffer;
+    private final DescriptionInterner descriptionInterner;
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Creates a reader over the given buffer. Each reader keeps its own scratch state,
+     * so concurrent readers over the same buffer need separate instances.
+     * Readers on other threads may share one description table, which they lock for each description.
+     *
+     * @param buffer The file contents.
+     * @param descriptionInterner The table of descriptions to share as records are read, or null for none.
+     */
+    MappedTaskFileReader(ByteBuffer buffer, DescriptionInterner descriptionInterner) {
+        this.buffer = buffer;
+        this.descriptionInterner = descriptionInterner;
+    }
+
+    /**
+     * Returns whether a file of the given size can be mapped in one piece.
+     */
+    static boolean canMap(long size) {
+        return size <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Maps the whole file read-only.
+     *
+     * @param path The data file.
+     * @return The mapped contents.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            assert canMap(size) : "File too large to map";
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Reads every record in the file into the given list, reporting corrupted lines.
+     *
+     * @param path The data file.
+     * @param tasks The list to append the tasks to.
+     * @param descriptionInterner The table of descriptions to share, or null for none.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static void read(Path path, List<Task> tasks, DescriptionInterner descriptionInterner) throws IOException {
+        MappedByteBuffer buffer = map(path);
+        Chunk chunk = new MappedTaskFileReader(buffer, descriptionInterner).readChunk(0, buffer.limit());
+        chunk.reportCorruptedLines(0);
+        tasks.addAll(chunk.tasks);
+    }
+
+    /**
+     * Reads the records between two offsets. The start must be at the beginning of a line.
+     *
+     * @param start The offset of the first byte of the chunk.
+     * @param end The offset just past the last byte of the chunk.
+     * @return The tasks and corrupted lines found, numbered from 1 within the chunk.
+     */
+    Chunk readChunk(int start, int end) {
+        Chunk chunk = new Chunk();
+        int lineStart = start;
+
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            chunk.lineCount++;
+            readLine(lineStart, lineEnd, chunk);
+
+            // Treat \n, \r and \r\n as line terminators, like Files.readAllLines
+            int next = lineEnd + 1;
+            if (lineEnd < end && buffer.get(lineEnd) == '\r' && next < end && buffer.get(next) == '\n') {
+                next++;
+            }
+            lineStart = next;
+        }
+        return chunk;
+    }
+
+    private void readLine(int start, int end, Chunk chunk) {
+        start = skipWhitespace(start, end);
+        end = trimWhitespace(start, end);
+        if (start == end) {
+            return;
+        }
+
+        Task task = scanRecord(start, end);
+        if (task != null) {
+            chunk.tasks.add(task);
+            return;
+        }
+
+        // Anything unusual takes the regular path so messages stay identical
+        String line = decode(start, end);
+        try {
+            Task parsedTask = parseRecord(line);
+            if (parsedTask != null) {
+                chunk.tasks.add(parsedTask);
+            }
+        } catch (Exception e) {
+            chunk.corruptedLines.add(new CorruptedLine(chunk.lineCount, line, e.getMessage()));
+        }
+    }
+
+    /**
+     * Scans a trimmed record, returning null if it is not a well-formed record.
+     */
+    private Task scanRecord(int start, int end) {
+        int fieldCount = splitFields(start, end);
+        if (fieldCount < 3) {
+            return null;
+        }
+        if (fieldEnds[0] - fieldStarts[0] != 1 || fieldEnds[1] - fieldStarts[1] != 1) {
+            return null;
+        }
+
+        byte type = buffer.get(fieldStarts[0]);
+        byte status = buffer.get(fieldStarts[1]);
+        Task task;
+        int idField;
+        switch (type) {
+            case 'T':
+                task = new Todo(decodeDescription(fieldStarts[2], fieldEnds[2]));
+                idField = 3;
+                break;
+            case 'D': {
+                LocalDateTime by = fieldCount < 4 ? null : scanDateTime(fieldStarts[3], fieldEnds[3]);
+                if (by == null) {
+                    return null;
+                }
+                task = new Deadline(decodeDescription(fieldStarts[2], fieldEnds[2]), by);
+                idField = 4;
+                break;
+            }
+            case 'E':
+            case 'P': {
+                LocalDateTime from = fieldCount < 5 ? null : scanDateTime(fieldStarts[3], fieldEnds[3]);
+                LocalDateTime to = fieldCount < 5 ? null : scanDateTime(fieldStarts[4], fieldEnds[4]);
+                if (from == null || to == null) {
+                    return null;
+                }
+                String description = decodeDescription(fieldStarts[2], fieldEnds[2]);
+                task = type == 'E' ? new Event(description, from, to) : new Period(description, from, to);
+                idField = 5;
+                break;
+            }
+            default:
+                return null;
+        }
+
+        if (status == '1') {
+            task.markDone();
+        }
+        int id = fieldCount > idField ? scanId(fieldStarts[idField], fieldEnds[idField]) : -1;
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    /**
+     * Scans a {@code #12} task ID field.
+     *
+     * @return The ID, or -1 if the field is not an ID, in which case it is ignored like {@link TaskRecordFormat} does.
+     */
+    private int scanId(int start, int end) {
+        if (end - start < 2 || end - start > TaskRecordFormat.MAX_ID_LENGTH || buffer.get(start) != '#') {
+            return -1;
+        }
+        return scanDigits(start + 1, end - start - 1);
+    }
+
+    /**
+     * Splits the record on {@code " | "} the same way {@code String.split} does, trimming each field.
+     *
+     * @return The number of fields found, capped at {@link #MAX_FIELDS}.
+     */
+    private int splitFields(int start, int end) {
+        int fieldCount = 0;
+        int fieldStart = start;
+        int i = start;
+        while (i <= end - SEPARATOR.length && fieldCount < MAX_FIELDS - 1) {
+            if (buffer.get(i) == ' ' && buffer.get(i + 1) == '|' && buffer.get(i + 2) == ' ') {
+                setField(fieldCount++, fieldStart, i);
+                i += SEPARATOR.length;
+                fieldStart = i;
+            } else {
+                i++;
+            }
+        }
+        int fieldEnd = end;
+        if (fieldCount == MAX_FIELDS - 1) {
+            // Anything after the last field's separator is ignored, like the extra elements of String.split
+            for (int j = fieldStart; j <= end - SEPARATOR.length; j++) {
+                if (buffer.get(j) == ' ' && buffer.get(j + 1) == '|' && buffer.get(j + 2) == ' ') {
+                    fieldEnd = j;
+                    break;
+                }
+            }
+        }
+        setField(fieldCount++, fieldStart, fieldEnd);
+        return fieldCount;
+    }
+
+    private void setField(int index, int start, int end) {
+        start = skipWhitespace(start, end);
+        fieldStarts[index] = start;
+        fieldEnds[index] = trimWhitespace(start, end);
+    }
+
+    /**
+     * Scans a {@code yyyy-MM-dd HHmm} date-time, resolving out-of-range days the same way
+     * {@code LocalDateTime.parse} does with the storage formatter.
+     *
+     * @return The date-time, or null if the field is not in the expected format.
+     */
+    private LocalDateTime scanDateTime(int start, int end) {
+        if (end - start != DATE_TIME_LENGTH || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-'
+                || buffer.get(start + 10) != ' ') {
+            return null;
+        }
+        int year = scanDigits(start, 4);
+        int month = scanDigits(start + 5, 2);
+        int day = scanDigits(start + 8, 2);
+        int hour = scanDigits(start + 11, 2);
+        int minute = scanDigits(start + 13, 2);
+        return DateTimeParser.resolve(year, month, day, hour, minute);
+    }
+
+    private int scanDigits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int skipWhitespace(int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimWhitespace(int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Parses a record the byte scanner did not recognise, sharing its description like scanned ones.
+     */
+    private Task parseRecord(String line) throws TypeCastException {
+        if (descriptionInterner == null) {
+            return TaskRecordFormat.parse(line);
+        }
+        synchronized (descriptionInterner) {
+            return TaskRecordFormat.parse(line, descriptionInterner);
+        }
+    }
+
+    private String decodeDescription(int start, int end) {
+        String description = decode(start, end);
+        if (descriptionInterner == null) {
+            return description;
+        }
+        synchronized (descriptionInterner) {
+            return descriptionInterner.intern(description);
+        }
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The result of reading one line-aligned chunk of the file.
+     */
+    static class Chunk {
+        final ArrayList<Task> tasks = new ArrayList<>();
+        final ArrayList<CorruptedLine> corruptedLines = new ArrayList<>();
+        int lineCount;
+
+        /**
+         * Prints a warning for every corrupted line in the chunk.
+         *
+         * @param lineOffset The number of lines in the file before this chunk.
+         */
+        void reportCorruptedLines(int lineOffset) {
+            for (CorruptedLine corruptedLine : corruptedLines) {
+                System.out.println("Warning: Skipping corrupted line " + (lineOffset + corruptedLine.lineNumber)
+                        + ": " + corruptedLine.line);
+                System.out.println("  Error: " + corruptedLine.message);
+            }
+        }
+    }
+
+    private static class CorruptedLine {
+        private final int lineNumber;
+        private final String line;
+        private final String message;
+
+        CorruptedLine(int lineNumber, String line, String message) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package typecast.storage;
+
+import typecast.task.DescriptionInterner;
+import typecast.task.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads the text data file by splitting it into line-aligned chunks and scanning them on a {@link ForkJoinPool}.
+ * The file is read into a heap buffer rather than mapped, so no mapping outlives the load and keeps the file
+ * from being replaced by the next save on platforms that lock mapped files, such as Windows.
+ * Chunks are stitched back together in file order, so task indices and the line numbers
+ * in corrupted-line warnings are the same as for a sequential load.
+ * Chunks share one description table, which each chunk locks only while it looks up a description.
+ */
+final class ParallelTaskFileReader {
+    /** Files smaller than this are not worth splitting. */
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelTaskFileReader() {
+    }
+
+    /**
+     * Reads every record in the file into the given list, reporting corrupted lines.
+     *
+     * @param path The data file.
+     * @param tasks The list to append the tasks to.
+     * @param pool The pool to parse chunks on.
+     * @param descriptionInterner The table of descriptions to share, or null for none.
+     * @throws IOException If the file cannot be read.
+     */
+    static void read(Path path, List<Task> tasks, ForkJoinPool pool, DescriptionInterner descriptionInterner)
+            throws IOException {
+        ByteBuffer buffer = readFully(path);
+        int[] boundaries = findChunkBoundaries(buffer, pool.getParallelism() * CHUNKS_PER_THREAD);
+
+        List<MappedTaskFileReader.Chunk> chunks = pool.invoke(new ChunkTask(buffer, boundaries, 0,
+                boundaries.length - 1, descriptionInterner));
+
+        int lineOffset = 0;
+        for (MappedTaskFileReader.Chunk chunk : chunks) {
+            chunk.reportCorruptedLines(lineOffset);
+            tasks.addAll(chunk.tasks);
+            lineOffset += chunk.lineCount;
+        }
+    }
+
+    /**
+     * Reads the whole file into a heap buffer and closes it.
+     *
+     * @param path The data file, which must be small enough to map in one piece.
+     * @return The file contents, positioned at the start.
+     * @throws IOException If the file cannot be read or is too large for one buffer.
+     */
+    static ByteBuffer readFully(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Checked here too, as the file may have grown since the caller looked at its size
+            if (!MappedTaskFileReader.canMap(size)) {
+                throw new IOException("File too large to read into one buffer: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full or the file ends early
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Splits the buffer into at most the given number of chunks, each starting at the beginning of a line.
+     *
+     * @return The chunk start offsets, followed by the end of the buffer.
+     */
+    static int[] findChunkBoundaries(ByteBuffer buffer, int maxChunks) {
+        int size = buffer.limit();
+        int chunkCount = Math.max(1, Math.min(maxChunks, size / MIN_CHUNK_BYTES));
+        int targetChunkSize = size / chunkCount;
+
+        ArrayList<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int boundary = 0;
+        for (int i = 1; i < chunkCount; i++) {
+            boundary = Math.max(boundary, i * targetChunkSize);
+            while (boundary < size && buffer.get(boundary - 1) != '\n') {
+                boundary++;
+            }
+            if (boundary >= size) {
+                break;
+            }
+            boundaries.add(boundary);
+        }
+        boundaries.add(size);
+
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Scans a range of chunks, splitting the range in half until a single chunk is left.
+     */
+    private static class ChunkTask extends RecursiveTask<List<MappedTaskFileReader.Chunk>> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int[] boundaries;
+        private final int from;
+        private final int to;
+        private final DescriptionInterner descriptionInterner;
+
+        ChunkTask(ByteBuffer buffer, int[] boundaries, int from, int to, DescriptionInterner descriptionInterner) {
+            this.buffer = buffer;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.descriptionInterner = descriptionInterner;
+        }
+
+        @Override
+        protected List<MappedTaskFileReader.Chunk> compute() {
+            if (to - from == 1) {
+                MappedTaskFileReader reader = new MappedTaskFileReader(buffer.duplicate(), descriptionInterner);
+                List<MappedTaskFileReader.Chunk> result = new ArrayList<>();
+                result.add(reader.readChunk(boundaries[from], boundaries[to]));
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(buffer, boundaries, from, middle, descriptionInterner);
+            ChunkTask right = new ChunkTask(buffer, boundaries, middle, to, descriptionInterner);
+            left.fork();
+            List<MappedTaskFileReader.Chunk> result = right.compute();
+            result.addAll(0, left.join());
+            return result;
+        }
+    }
+}
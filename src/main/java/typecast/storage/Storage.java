@@ -2,35 +2,162 @@ package typecast.storage;
 
 import typecast.exception.TypeCastException;
 import typecast.task.Deadline;
+import typecast.task.DescriptionInterner;
 import typecast.task.Event;
 import typecast.task.Period;
 import typecast.task.Task;
+import typecast.task.TaskList;
 import typecast.task.Todo;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * Handles loading and saving tasks to/from a file.
+ * In journaled mode, individual mutations are appended to a journal next to the data file
+ * and periodically compacted into it, instead of rewriting the whole file on every change.
+ * The data file may also be watched for edits made by other programs, which are then merged into the task list.
  */
 public class Storage {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    /** Stands for a data file whose contents are unknown; no CRC-32 value is negative. */
+    private static final long UNKNOWN_CHECKSUM = -1;
+
+    /**
+     * Strategies for reading the data file.
+     */
+    public enum LoadMode {
+        /** Reads the file line by line into Strings. */
+        STANDARD,
+        /**
+         * Maps the file into memory and scans records directly from bytes. The mapping is only released when it is
+         * garbage collected, and until then Windows refuses to replace the file, so saves may fail there.
+         */
+        MEMORY_MAPPED,
+        /** Reads the file into one heap buffer and scans line-aligned chunks of it in parallel. */
+        PARALLEL
+    }
+
+    /**
+     * Formats the task snapshot can be saved in.
+     */
+    public enum Format {
+        /** Human-readable pipe-separated records in the data file. */
+        TEXT,
+        /** Compact binary records in a {@code .bin} file next to the data file. */
+        BINARY
+    }
+
     private final String filePath;
-    private static final DateTimeFormatter STORAGE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private final Path binaryPath;
+    private final TaskJournal journal;
+    private boolean isJournaled;
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private int backupCount;
+    private LoadMode loadMode = LoadMode.STANDARD;
+    private DescriptionInterner descriptionInterner;
+    private Format format = Format.TEXT;
+    private int journalRecordCount;
+    private volatile boolean isSnapshotNeeded;
+    private volatile int nextTaskId = 1;
+    private int batchDepth;
+    private boolean hasBatchedChanges;
+    private BackgroundSaver saver;
+    private volatile DataFileWatcher watcher;
+    private volatile long knownChecksum = UNKNOWN_CHECKSUM;
+    private final ConcurrentLinkedQueue<String> saveErrors = new ConcurrentLinkedQueue<>();
     
     public Storage(String filePath) {
         this.filePath = filePath;
+        this.binaryPath = Paths.get(toBinaryPath(filePath));
+        this.journal = new TaskJournal(Paths.get(filePath + ".journal"));
+    }
+
+    private static String toBinaryPath(String filePath) {
+        if (filePath.endsWith(".txt")) {
+            return filePath.substring(0, filePath.length() - ".txt".length()) + ".bin";
+        }
+        return filePath + ".bin";
+    }
+
+    /**
+     * Enables or disables journaled mode.
+     * When disabled, every recorded mutation rewrites the whole data file.
+     *
+     * @param isJournaled Whether mutations should be appended to the journal.
+     */
+    public void setJournaled(boolean isJournaled) {
+        this.isJournaled = isJournaled;
+    }
+
+    /**
+     * Sets the number of journal records after which the journal is compacted into the data file.
+     *
+     * @param compactionThreshold The maximum number of records kept in the journal.
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        assert compactionThreshold > 0 : "Compaction threshold must be positive";
+        this.compactionThreshold = compactionThreshold;
+    }
+    
+    /**
+     * Sets the number of previous snapshots to keep as {@code <data file>.1} to {@code <data file>.N}.
+     * Every save replaces the snapshot atomically, whether or not backups are kept.
+     *
+     * @param backupCount The number of backups to keep, or 0 for none.
+     */
+    public void setBackupCount(int backupCount) {
+        assert backupCount >= 0 : "Backup count must not be negative";
+        this.backupCount = backupCount;
+    }
+
+    /**
+     * Sets how the data file is read by {@link #loadTasks()}.
+     *
+     * @param loadMode The strategy to use.
+     */
+    public void setLoadMode(LoadMode loadMode) {
+        this.loadMode = loadMode;
+    }
+
+    /**
+     * Shares equal descriptions through the given table as {@link #loadTasks()} reads records,
+     * so repeated descriptions are not all held at once during a load.
+     *
+     * @param descriptionInterner The table of descriptions to share, or null to keep every record's own.
+     */
+    public void setDescriptionInterner(DescriptionInterner descriptionInterner) {
+        this.descriptionInterner = descriptionInterner;
+    }
+    
+    /**
+     * Sets the format snapshots are saved in.
+     * When switching to {@link Format#BINARY}, an existing text data file is migrated on the next load
+     * and is no longer updated afterwards; use {@link #exportText} to get a readable copy.
+     *
+     * @param format The snapshot format.
+     */
+    public void setFormat(Format format) {
+        this.format = format;
     }
     
     public ArrayList<Task> loadTasks() {
         ArrayList<Task> tasks = new ArrayList<>();
+        nextTaskId = 1;
         
         try {
             Path path = Paths.get(filePath);
@@ -39,141 +166,600 @@ public class Storage {
                 Files.createDirectories(parentDir);
             }
             
-            File file = new File(filePath);
-            if (!file.exists()) {
-                file.createNewFile();
-                return tasks;
-            }
-            
-            List<String> lines = Files.readAllLines(path);
-            for (int i = 0; i < lines.size(); i++) {
-                String line = lines.get(i).trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
-                
-                try {
-                    Task task = parseTask(line);
-                    if (task != null) {
-                        tasks.add(task);
-                    }
-                } catch (Exception e) {
-                    System.out.println("Warning: Skipping corrupted line " + (i + 1) + ": " + line);
-                    System.out.println("  Error: " + e.getMessage());
+            int journalGeneration;
+            if (format == Format.BINARY && Files.exists(binaryPath)) {
+                BinarySnapshot.Header header = BinarySnapshot.read(binaryPath, tasks);
+                nextTaskId = Math.max(header.nextId, 1);
+                journalGeneration = header.journalGeneration;
+            } else {
+                journalGeneration = readText(path, tasks);
+                if (format == Format.BINARY && !tasks.isEmpty()) {
+                    int nextId = getNextTaskId(tasks);
+                    int migratedGeneration = journalGeneration;
+                    AtomicFileWriter.write(binaryPath,
+                            out -> BinarySnapshot.write(out, tasks, nextId, migratedGeneration), 0);
+                    System.out.println("Migrated " + tasks.size() + " task(s) from " + filePath
+                            + " to " + binaryPath);
                 }
             }
+
+            journalRecordCount = journal.replay(tasks, journalGeneration);
+            nextTaskId = Math.max(getNextTaskId(tasks), journal.getHighestReplayedId() + 1);
             
         } catch (IOException e) {
             System.out.println("Error loading tasks from file: " + e.getMessage());
+        } catch (TypeCastException e) {
+            System.out.println("Error loading tasks from binary snapshot: " + e.getMessage());
         }
         
         return tasks;
     }
-    
-    private Task parseTask(String line) throws TypeCastException {
-        String[] parts = line.split(" \\| ");
-        
-        if (parts.length < 3) {
-            throw new TypeCastException("Invalid task format: " + line);
+
+    /**
+     * Returns the ID the next new task should get, so that IDs of tasks deleted before the last save
+     * are not handed out again. Only meaningful after {@link #loadTasks()}.
+     */
+    public int getNextTaskId() {
+        return nextTaskId;
+    }
+
+    /**
+     * Returns the highest of the recorded next ID and one past every ID in the given tasks.
+     */
+    private int getNextTaskId(List<Task> tasks) {
+        int nextId = nextTaskId;
+        for (Task task : tasks) {
+            nextId = Math.max(nextId, task.getId() + 1);
         }
-        
-        String type = parts[0].trim();
-        String status = parts[1].trim();
-        String description = parts[2].trim();
-        
-        Task task = null;
-        
-        switch (type) {
-            case "T":
-                task = new Todo(description);
-                break;
-            case "D":
-                if (parts.length < 4) {
-                    throw new TypeCastException("Invalid deadline format: missing deadline date");
-                }
-                String byStr = parts[3].trim();
-                try {
-                    LocalDateTime by = LocalDateTime.parse(byStr, STORAGE_FORMATTER);
-                    task = new Deadline(description, by);
-                } catch (Exception e) {
-                    throw new TypeCastException("Invalid deadline date format: " + byStr);
-                }
-                break;
-            case "E":
-                if (parts.length < 5) {
-                    throw new TypeCastException("Invalid event format: missing time range");
-                }
-                String fromStr = parts[3].trim();
-                String toStr = parts[4].trim();
-                try {
-                    LocalDateTime from = LocalDateTime.parse(fromStr, STORAGE_FORMATTER);
-                    LocalDateTime to = LocalDateTime.parse(toStr, STORAGE_FORMATTER);
-                    task = new Event(description, from, to);
-                } catch (Exception e) {
-                    throw new TypeCastException("Invalid event date format");
-                }
-                break;
-            case "P":
-                if (parts.length < 5) {
-                    throw new TypeCastException("Invalid period format: missing date range");
-                }
-                String startStr = parts[3].trim();
-                String endStr = parts[4].trim();
-                try {
-                    LocalDateTime start = LocalDateTime.parse(startStr, STORAGE_FORMATTER);
-                    LocalDateTime end = LocalDateTime.parse(endStr, STORAGE_FORMATTER);
-                    task = new Period(description, start, end);
-                } catch (Exception e) {
-                    throw new TypeCastException("Invalid period date format");
-                }
-                break;
-            default:
-                throw new TypeCastException("Unknown task type: " + type);
+        return nextId;
+    }
+
+    /**
+     * Reads the text data file into the given list.
+     *
+     * @return The generation of the last journal folded into the file, or 0 if it records none.
+     */
+    private int readText(Path path, ArrayList<Task> tasks) throws IOException {
+        if (format == Format.BINARY && !Files.exists(path)) {
+            return 0;
         }
-        
-        if (status.equals("1")) {
-            task.markDone();
+
+        File file = new File(filePath);
+        if (!file.exists()) {
+            file.createNewFile();
         }
-        
-        return task;
+
+        // Every loader skips the header, so it is read here on its own
+        int journalGeneration = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String firstLine = reader.readLine();
+            if (firstLine != null) {
+                nextTaskId = Math.max(TaskRecordFormat.parseNextIdHeader(firstLine.trim()), 1);
+                journalGeneration = TaskRecordFormat.parseJournalGeneration(firstLine.trim());
+            }
+        }
+
+        boolean canMap = MappedTaskFileReader.canMap(Files.size(path));
+        if (loadMode == LoadMode.PARALLEL && canMap) {
+            ParallelTaskFileReader.read(path, tasks, ForkJoinPool.commonPool(), descriptionInterner);
+        } else if (loadMode == LoadMode.MEMORY_MAPPED && canMap) {
+            MappedTaskFileReader.read(path, tasks, descriptionInterner);
+        } else {
+            readLines(path, tasks);
+        }
+        return journalGeneration;
     }
     
-    public void saveTasks(ArrayList<Task> tasks) {
-        try {
-            Path path = Paths.get(filePath);
-            Path parentDir = path.getParent();
-            if (parentDir != null && !Files.exists(parentDir)) {
-                Files.createDirectories(parentDir);
+    private void readLines(Path path, ArrayList<Task> tasks) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
             }
             
-            FileWriter writer = new FileWriter(filePath);
-            for (Task task : tasks) {
-                writer.write(formatTask(task) + "\n");
+            try {
+                Task task = TaskRecordFormat.parse(line, descriptionInterner);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            } catch (Exception e) {
+                System.out.println("Warning: Skipping corrupted line " + (i + 1) + ": " + line);
+                System.out.println("  Error: " + e.getMessage());
             }
-            writer.close();
-            
+        }
+    }
+    
+    public void saveTasks(List<Task> tasks) {
+        journalRecordCount = 0;
+        if (saver != null) {
+            saver.submitSnapshot(copyTasks(tasks));
+            return;
+        }
+
+        try {
+            writeSnapshot(tasks);
         } catch (IOException e) {
             System.out.println("Error saving tasks to file: " + e.getMessage());
         }
     }
-    
-    private String formatTask(Task task) {
-        String status = task.getStatus().equals("X") ? "1" : "0";
-        String description = task.getDescription();
-        
-        if (task instanceof Todo) {
-            return "T | " + status + " | " + description;
-        } else if (task instanceof Deadline) {
-            Deadline deadline = (Deadline) task;
-            return "D | " + status + " | " + description + " | " + deadline.getByString();
+
+    /**
+     * Copies the tasks for the saver thread, so it never reads a task while this thread marks it,
+     * shares its description or caches its display string.
+     */
+    private static ArrayList<Task> copyTasks(List<Task> tasks) {
+        ArrayList<Task> copies = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            copies.add(copyTask(task));
+        }
+        return copies;
+    }
+
+    private static Task copyTask(Task task) {
+        Task copy;
+        if (task instanceof Deadline) {
+            copy = new Deadline(task.getDescription(), ((Deadline) task).getBy());
         } else if (task instanceof Event) {
             Event event = (Event) task;
-            return "E | " + status + " | " + description + " | " + event.getFromString() + " | " + event.getToString();
+            copy = new Event(task.getDescription(), event.getFrom(), event.getTo());
         } else if (task instanceof Period) {
             Period period = (Period) task;
-            return "P | " + status + " | " + description + " | " + period.getStartDateString() + " | " + period.getEndDateString();
+            copy = new Period(task.getDescription(), period.getStartDate(), period.getEndDate());
+        } else {
+            copy = new Todo(task.getDescription());
         }
-        
-        return "T | " + status + " | " + description;
+        if (task.isDone()) {
+            copy.markDone();
+        }
+        if (task.getId() > 0) {
+            copy.setId(task.getId());
+        }
+        return copy;
+    }
+
+    private void writeSnapshot(List<Task> tasks) throws IOException {
+        Path path = Paths.get(filePath);
+        Path parentDir = path.getParent();
+        if (parentDir != null && !Files.exists(parentDir)) {
+            Files.createDirectories(parentDir);
+        }
+
+        int nextId = getNextTaskId(tasks);
+        // The snapshot names the journal it folds in, so that journal is not replayed again if clearing it fails
+        int journalGeneration = isJournaled ? journal.getGeneration() : 0;
+        if (format == Format.BINARY) {
+            AtomicFileWriter.write(binaryPath,
+                    out -> BinarySnapshot.write(out, tasks, nextId, journalGeneration), backupCount);
+        } else {
+            if (watcher != null) {
+                keepExternalEdit(path);
+            }
+            AtomicFileWriter.write(path, out -> writeWatchedText(out, tasks, nextId, journalGeneration), backupCount);
+        }
+
+        // The data file now reflects every journaled mutation
+        journal.clear();
+        isSnapshotNeeded = false;
+    }
+
+    /**
+     * Writes the tasks in the human-readable text format, regardless of the snapshot format in use.
+     *
+     * @param tasks The tasks to export.
+     * @param exportPath The file to write to.
+     * @throws IOException If the file cannot be written.
+     */
+    public void exportText(List<Task> tasks, String exportPath) throws IOException {
+        int nextId = getNextTaskId(tasks);
+        AtomicFileWriter.write(Paths.get(exportPath), out -> writeText(out, tasks, nextId, 0), 0);
+    }
+
+    /**
+     * Writes the tasks as CSV or JSON Lines for use in other programs, one task at a time.
+     *
+     * @param tasks The tasks to export.
+     * @param exportPath The file to write to.
+     * @param format The format to write.
+     * @throws IOException If the file cannot be written, or is one of the files tasks are saved in.
+     */
+    public void exportTasks(List<Task> tasks, String exportPath, ExchangeFormat format) throws IOException {
+        Path target = Paths.get(exportPath).toAbsolutePath().normalize();
+        for (Path ownPath : List.of(Paths.get(filePath), binaryPath, Paths.get(filePath + ".journal"))) {
+            if (target.equals(ownPath.toAbsolutePath().normalize())) {
+                throw new IOException("That is the file your tasks are saved in.");
+            }
+        }
+        AtomicFileWriter.write(target, out -> TaskExchangeWriter.write(out, tasks, format), 0);
+    }
+
+    /**
+     * Copies the data file aside if another program changed it since it was last loaded or saved, as the save about
+     * to replace it holds the changes made here meanwhile. The copy is reported through {@link #drainSaveErrors()},
+     * so the other program's edit is neither lost nor overwritten unnoticed.
+     */
+    private void keepExternalEdit(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (checksum(bytes) == knownChecksum) {
+            return;
+        }
+        Path conflictPath = Paths.get(filePath + ".conflict");
+        Files.write(conflictPath, bytes);
+        saveErrors.add("Another program changed " + filePath + " before your latest changes were saved over it. "
+                + "Its version was kept in " + conflictPath + ".");
+    }
+
+    /**
+     * Writes the data file, remembering its checksum while it is watched, so the watcher can tell this save
+     * from an edit by another program. The checksum is known before the file is replaced, so it is in place
+     * by the time the watcher reports the change.
+     */
+    private void writeWatchedText(OutputStream out, List<Task> tasks, int nextId, int journalGeneration)
+            throws IOException {
+        if (watcher == null) {
+            writeText(out, tasks, nextId, journalGeneration);
+            return;
+        }
+        CheckedOutputStream checkedOut = new CheckedOutputStream(out, new CRC32());
+        writeText(checkedOut, tasks, nextId, journalGeneration);
+        knownChecksum = checkedOut.getChecksum().getValue();
+    }
+
+    private static void writeText(OutputStream out, List<Task> tasks, int nextId, int journalGeneration)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        int highestId = 0;
+        for (Task task : tasks) {
+            highestId = Math.max(highestId, task.getId());
+        }
+        // The header is only needed when the newest tasks have been deleted or a journal was folded in
+        if (nextId > highestId + 1 || journalGeneration > 0) {
+            writer.write(TaskRecordFormat.formatNextIdHeader(nextId, journalGeneration));
+            writer.write('\n');
+        }
+        for (Task task : tasks) {
+            writer.write(TaskRecordFormat.format(task));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Persists a task that was just appended to the list.
+     *
+     * @param task The added task.
+     * @param tasks All tasks, including the added one.
+     */
+    public void recordAdd(Task task, List<Task> tasks) {
+        nextTaskId = Math.max(nextTaskId, task.getId() + 1);
+        record(TaskJournal.addRecord(task), tasks);
+    }
+
+    /**
+     * Persists a task that was just marked as done.
+     *
+     * @param index The 0-based index of the marked task.
+     * @param tasks All tasks.
+     */
+    public void recordMark(int index, List<Task> tasks) {
+        recordMark(new int[] {index}, tasks);
+    }
+
+    /**
+     * Persists tasks that were just marked as done, as a single change.
+     *
+     * @param indices The ascending 0-based indices of the marked tasks.
+     * @param tasks All tasks.
+     */
+    public void recordMark(int[] indices, List<Task> tasks) {
+        record(TaskJournal.markRecord(indices), tasks);
+    }
+
+    /**
+     * Persists a task that was just marked as not done.
+     *
+     * @param index The 0-based index of the unmarked task.
+     * @param tasks All tasks.
+     */
+    public void recordUnmark(int index, List<Task> tasks) {
+        recordUnmark(new int[] {index}, tasks);
+    }
+
+    /**
+     * Persists tasks that were just marked as not done, as a single change.
+     *
+     * @param indices The ascending 0-based indices of the unmarked tasks.
+     * @param tasks All tasks.
+     */
+    public void recordUnmark(int[] indices, List<Task> tasks) {
+        record(TaskJournal.unmarkRecord(indices), tasks);
+    }
+
+    /**
+     * Persists a task that was just removed from the list.
+     *
+     * @param index The 0-based index the task had before it was removed.
+     * @param tasks All remaining tasks.
+     */
+    public void recordDelete(int index, List<Task> tasks) {
+        recordDelete(new int[] {index}, tasks);
+    }
+
+    /**
+     * Persists tasks that were just removed from the list, as a single change.
+     *
+     * @param indices The ascending 0-based indices the tasks had before they were removed.
+     * @param tasks All remaining tasks.
+     */
+    public void recordDelete(int[] indices, List<Task> tasks) {
+        record(TaskJournal.deleteRecord(indices), tasks);
+    }
+
+    private void record(String record, List<Task> tasks) {
+        if (batchDepth > 0) {
+            hasBatchedChanges = true;
+            return;
+        }
+        if (!isJournaled || isSnapshotNeeded || watcher != null) {
+            saveTasks(tasks);
+            return;
+        }
+
+        if (saver != null) {
+            saver.submitRecord(record);
+        } else {
+            try {
+                journal.append(List.of(record));
+            } catch (IOException e) {
+                System.out.println("Error writing to journal: " + e.getMessage());
+                saveTasks(tasks);
+                return;
+            }
+        }
+
+        journalRecordCount++;
+        if (journalRecordCount >= compactionThreshold) {
+            saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Starts a batch: recorded changes are kept in memory until the matching {@link #endBatch} call,
+     * which saves them all at once. Batches may be nested; only the outermost one saves.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a batch, saving the tasks once if any change was recorded since the outermost batch began.
+     *
+     * @param tasks All tasks.
+     */
+    public void endBatch(List<Task> tasks) {
+        assert batchDepth > 0 : "No batch is in progress";
+        batchDepth--;
+        if (batchDepth == 0 && hasBatchedChanges) {
+            hasBatchedChanges = false;
+            saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Returns whether a batch is in progress.
+     */
+    public boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    /**
+     * Folds any pending journal records into the data file.
+     *
+     * @param tasks All tasks.
+     */
+    public void compact(List<Task> tasks) {
+        if (journalRecordCount > 0 || isSnapshotNeeded) {
+            saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Switches to write-behind saving: saves and journal records are queued and written by a background
+     * thread, coalescing everything submitted within the delay into one flush.
+     * Failed flushes are collected for {@link #drainSaveErrors()}, and the next change is saved as a full snapshot.
+     *
+     * @param maxDelayMillis The longest time a change may wait before it is written.
+     */
+    public void enableWriteBehind(long maxDelayMillis) {
+        assert saver == null : "Write-behind is already enabled";
+        saver = new BackgroundSaver(new BackgroundSaver.Sink() {
+            @Override
+            public void writeSnapshot(List<Task> tasks) throws IOException {
+                Storage.this.writeSnapshot(tasks);
+            }
+
+            @Override
+            public void appendRecords(List<String> records) throws IOException {
+                journal.append(records);
+            }
+        }, maxDelayMillis, message -> {
+            isSnapshotNeeded = true;
+            saveErrors.add(message);
+        });
+    }
+
+    /**
+     * Writes any changes queued for write-behind saving and waits for them to complete.
+     */
+    public void flush() {
+        if (saver != null) {
+            saver.flush();
+        }
+    }
+
+    /**
+     * Starts watching the data file for edits made by other programs; see {@link #reloadExternalChanges}.
+     * While the file is watched, every change is saved as a full snapshot instead of being journaled,
+     * so the file other programs see is never more than the write-behind delay behind the tasks in memory.
+     * Only the text format can be watched.
+     *
+     * @param tasks All tasks, which are saved first if the journal holds changes the data file lacks.
+     * @throws IOException If the binary format is in use, or the data file cannot be read or its directory
+     *         cannot be watched.
+     */
+    public void watchDataFile(List<Task> tasks) throws IOException {
+        if (format != Format.TEXT) {
+            throw new IOException("Only the text format can be watched.");
+        }
+        assert watcher == null : "The data file is already watched";
+        compact(tasks);
+        flush();
+
+        Path path = Paths.get(filePath);
+        knownChecksum = Files.exists(path) ? checksum(Files.readAllBytes(path)) : UNKNOWN_CHECKSUM;
+        watcher = new DataFileWatcher(path);
+    }
+
+    /**
+     * Brings the task list in line with the data file if another program changed it since it was last
+     * loaded or saved. Records are compared in their saved form and only tasks whose records differ are replaced,
+     * so an edit to a few lines leaves the rest of the list, and its indexes, as they are.
+     * Changes still waiting to be written are saved first, so they win over an edit made at the same time;
+     * the edited file is then kept aside and reported, like any edit a background save replaces.
+     * A deleted data file is ignored, and nothing is reloaded during a batch.
+     *
+     * @param taskList The task list to update.
+     * @return The number of records that differed, or 0 if the data file has not changed.
+     * @throws IOException If the data file cannot be read.
+     */
+    public int reloadExternalChanges(TaskList taskList) throws IOException {
+        if (watcher == null || batchDepth > 0 || !watcher.pollChange()) {
+            return 0;
+        }
+        flush();
+
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        // The records are parsed from the same bytes that are checksummed, in case the file changes again meanwhile
+        byte[] bytes = Files.readAllBytes(path);
+        long checksum = checksum(bytes);
+        if (checksum == knownChecksum) {
+            return 0;
+        }
+        knownChecksum = checksum;
+
+        ArrayList<String> records = new ArrayList<>();
+        ArrayList<Task> latest = new ArrayList<>();
+        String[] lines = new String(bytes, StandardCharsets.UTF_8).split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (i == 0) {
+                nextTaskId = Math.max(nextTaskId, TaskRecordFormat.parseNextIdHeader(line));
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                Task task = TaskRecordFormat.parse(line);
+                if (task != null) {
+                    latest.add(task);
+                    records.add(TaskRecordFormat.format(task));
+                }
+            } catch (Exception e) {
+                System.out.println("Warning: Skipping corrupted line " + (i + 1) + ": " + line);
+                System.out.println("  Error: " + e.getMessage());
+            }
+        }
+
+        return applyChanges(taskList, latest, records);
+    }
+
+    /**
+     * Makes the task list match the latest tasks read from the data file. Working in from both ends while the task
+     * and the record at matching positions have the same ID, tasks whose record differs are replaced in place;
+     * whatever remains in between, such as added or removed records, is replaced as one range.
+     *
+     * @return The number of records that differed.
+     */
+    private int applyChanges(TaskList taskList, List<Task> latest, List<String> records) {
+        List<Task> current = taskList.getTasks();
+        int from = 0;
+        int to = current.size();
+        int latestFrom = 0;
+        int latestTo = latest.size();
+        int changedCount = 0;
+        while (from < to && latestFrom < latestTo && hasSameId(current.get(from), latest.get(latestFrom))) {
+            if (!TaskRecordFormat.format(current.get(from)).equals(records.get(latestFrom))) {
+                taskList.replace(from, from + 1, List.of(latest.get(latestFrom)));
+                changedCount++;
+            }
+            from++;
+            latestFrom++;
+        }
+        while (from < to && latestFrom < latestTo && hasSameId(current.get(to - 1), latest.get(latestTo - 1))) {
+            if (!TaskRecordFormat.format(current.get(to - 1)).equals(records.get(latestTo - 1))) {
+                taskList.replace(to - 1, to, List.of(latest.get(latestTo - 1)));
+                changedCount++;
+            }
+            to--;
+            latestTo--;
+        }
+        List<Task> replacements = latest.subList(latestFrom, latestTo);
+        taskList.replace(from, to, replacements);
+        changedCount += Math.max(to - from, replacements.size());
+
+        // Records without a free ID were given one, which the data file should hold too
+        for (int i = 0; i < replacements.size(); i++) {
+            if (!TaskRecordFormat.format(replacements.get(i)).equals(records.get(latestFrom + i))) {
+                saveTasks(taskList.getTasks());
+                break;
+            }
+        }
+        return changedCount;
+    }
+
+    private static boolean hasSameId(Task task, Task other) {
+        return task.getId() > 0 && task.getId() == other.getId();
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /**
+     * Flushes queued changes and stops the write-behind thread and the data file watcher, if any.
+     */
+    public void close() {
+        if (saver != null) {
+            saver.close();
+            saver = null;
+        }
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                System.out.println("Error closing the data file watcher: " + e.getMessage());
+            }
+            watcher = null;
+        }
+    }
+
+    /**
+     * Returns and clears the messages of background saves that failed since the last call.
+     */
+    public List<String> drainSaveErrors() {
+        List<String> errors = new ArrayList<>();
+        String error;
+        while ((error = saveErrors.poll()) != null) {
+            errors.add(error);
+        }
+        return errors;
     }
-}
\ No newline at end of file
+}
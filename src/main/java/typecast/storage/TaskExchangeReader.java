@@ -0,0 +1,352 @@
+package typecast.storage;
+
+import typecast.exception.TypeCastException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Reads task records from a CSV or JSON Lines file one line at a time, so the file is never held in memory.
+ * A malformed record is reported by {@link #next} and skipped, and reading can carry on with the next one.
+ * Blank lines are ignored. Records only hold the raw fields; checking them and creating tasks is left to
+ * the caller, so imported tasks follow the same rules as tasks added by commands.
+ */
+public class TaskExchangeReader implements Closeable {
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final ExchangeFormat format;
+    private final HashMap<String, Integer> csvColumns = new HashMap<>();
+    private int lineNumber;
+
+    private TaskExchangeReader(BufferedReader reader, ExchangeFormat format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * Opens a file for reading. For CSV, the header row is read straight away.
+     *
+     * @param path The file to read.
+     * @param format The format of the file.
+     * @return The reader, positioned at the first record.
+     * @throws IOException If the file cannot be opened.
+     * @throws TypeCastException If the CSV header is missing or does not name a type column.
+     */
+    public static TaskExchangeReader open(Path path, ExchangeFormat format) throws IOException, TypeCastException {
+        TaskExchangeReader exchangeReader = new TaskExchangeReader(
+                Files.newBufferedReader(path, StandardCharsets.UTF_8), format);
+        if (format == ExchangeFormat.CSV) {
+            try {
+                exchangeReader.readCsvHeader();
+            } catch (IOException | TypeCastException e) {
+                exchangeReader.close();
+                throw e;
+            }
+        }
+        return exchangeReader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The record, or null at the end of the file.
+     * @throws IOException If the file cannot be read.
+     * @throws TypeCastException If the record is malformed. The next call reads the record after it.
+     */
+    public ExchangeRecord next() throws IOException, TypeCastException {
+        String line = readNonBlankLine();
+        if (line == null) {
+            return null;
+        }
+
+        HashMap<String, String> values = format == ExchangeFormat.CSV ? parseCsvRecord(line) : parseJsonRecord(line);
+        String type = values.getOrDefault("type", "").trim().toLowerCase();
+        if (type.isEmpty()) {
+            throw new TypeCastException("The record has no type.");
+        }
+        return new ExchangeRecord(type, parseDone(values.getOrDefault("done", "")),
+                values.getOrDefault("description", ""),
+                values.getOrDefault("start", "").trim(), values.getOrDefault("end", "").trim());
+    }
+
+    /**
+     * Returns the line number of the record last read, counting from 1.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String readNonBlankLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+                line = line.substring(1);
+            }
+            if (!line.isBlank()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private static boolean parseDone(String value) throws TypeCastException {
+        String done = value.trim();
+        if (done.isEmpty() || done.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (done.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new TypeCastException("Invalid done value: " + done + ". It should be true or false.");
+    }
+
+    private void readCsvHeader() throws IOException, TypeCastException {
+        String header = readNonBlankLine();
+        if (header == null) {
+            throw new TypeCastException("The CSV file is empty; it should start with a header row.");
+        }
+        ArrayList<String> names = parseCsvFields(header);
+        for (int i = 0; i < names.size(); i++) {
+            csvColumns.putIfAbsent(names.get(i).trim().toLowerCase(), i);
+        }
+        if (!csvColumns.containsKey("type")) {
+            throw new TypeCastException("The CSV header should name the fields, including type, e.g. "
+                    + String.join(",", TaskExchangeWriter.FIELDS));
+        }
+    }
+
+    private HashMap<String, String> parseCsvRecord(String line) throws TypeCastException {
+        ArrayList<String> fields = parseCsvFields(line);
+        HashMap<String, String> values = new HashMap<>();
+        for (String name : csvColumns.keySet()) {
+            int column = csvColumns.get(name);
+            if (column < fields.size()) {
+                values.put(name, fields.get(column));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Splits a CSV line into fields. Quoted fields may hold commas and doubled quotes, but not line breaks,
+     * as task descriptions are single lines.
+     */
+    private static ArrayList<String> parseCsvFields(String line) throws TypeCastException {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            field.setLength(0);
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new TypeCastException("A quoted field is not closed.");
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new TypeCastException("Unexpected text after a quoted field.");
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString());
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++; // Skip the comma
+        }
+    }
+
+    private static HashMap<String, String> parseJsonRecord(String line) throws TypeCastException {
+        return new JsonObjectParser(line).parse();
+    }
+
+    /**
+     * Parses a flat JSON object whose values are strings, numbers, booleans or null.
+     * Non-string values are kept as their literal text, and null values are left out.
+     */
+    private static class JsonObjectParser {
+        private final String text;
+        private int position;
+
+        JsonObjectParser(String text) {
+            this.text = text;
+        }
+
+        HashMap<String, String> parse() throws TypeCastException {
+            HashMap<String, String> values = new HashMap<>();
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    String key = parseString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    String value = peek() == '"' ? parseString() : parseLiteral();
+                    if (value != null) {
+                        values.put(key.toLowerCase(), value);
+                    }
+                    skipWhitespace();
+                    if (peek() == ',') {
+                        position++;
+                    } else {
+                        expect('}');
+                        break;
+                    }
+                }
+            }
+            skipWhitespace();
+            if (position < text.length()) {
+                throw new TypeCastException("Unexpected text after the JSON object.");
+            }
+            return values;
+        }
+
+        private String parseString() throws TypeCastException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (position >= text.length()) {
+                    throw new TypeCastException("A JSON string is not closed.");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    throw new TypeCastException("A JSON string is not closed.");
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(escaped);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        sb.append(parseUnicodeEscape());
+                        break;
+                    default:
+                        throw new TypeCastException("Invalid escape in a JSON string: \\" + escaped);
+                }
+            }
+        }
+
+        private char parseUnicodeEscape() throws TypeCastException {
+            if (position + 4 > text.length()) {
+                throw new TypeCastException("Invalid unicode escape in a JSON string.");
+            }
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(text.charAt(position++), 16);
+                if (digit < 0) {
+                    throw new TypeCastException("Invalid unicode escape in a JSON string.");
+                }
+                code = code * 16 + digit;
+            }
+            return (char) code;
+        }
+
+        /**
+         * Parses a number, true, false or null.
+         *
+         * @return The literal's text, or null for null.
+         */
+        private String parseLiteral() throws TypeCastException {
+            int start = position;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (!Character.isLetterOrDigit(c) && c != '-' && c != '+' && c != '.') {
+                    break;
+                }
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || isNumber(literal)) {
+                return literal;
+            }
+            throw new TypeCastException(literal.isEmpty()
+                    ? "Only strings, numbers, booleans and null are supported as JSON values."
+                    : "Invalid JSON value: " + literal);
+        }
+
+        private static boolean isNumber(String literal) {
+            try {
+                Double.parseDouble(literal);
+                return !literal.isEmpty() && (Character.isDigit(literal.charAt(0)) || literal.charAt(0) == '-');
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private char peek() {
+            return position < text.length() ? text.charAt(position) : '\0';
+        }
+
+        private void expect(char expected) throws TypeCastException {
+            if (peek() != expected) {
+                throw new TypeCastException("Invalid JSON: expected '" + expected + "' at column " + (position + 1)
+                        + ".");
+            }
+            position++;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
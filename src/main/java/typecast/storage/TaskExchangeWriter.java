@@ -0,0 +1,161 @@
+package typecast.storage;
+
+import typecast.task.Deadline;
+import typecast.task.Event;
+import typecast.task.Period;
+import typecast.task.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes tasks as CSV or JSON Lines, one task at a time, so no copy of the whole file is built in memory.
+ * See {@link ExchangeFormat} for the fields.
+ */
+final class TaskExchangeWriter {
+    static final String[] FIELDS = {"id", "type", "done", "description", "start", "end"};
+
+    private TaskExchangeWriter() {
+    }
+
+    /**
+     * Writes every task to the stream in the given format.
+     */
+    static void write(OutputStream out, List<Task> tasks, ExchangeFormat format) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if (format == ExchangeFormat.CSV) {
+            writer.write(String.join(",", FIELDS));
+            writer.write('\n');
+        }
+
+        String[] values = new String[FIELDS.length];
+        for (Task task : tasks) {
+            fillValues(task, values);
+            if (format == ExchangeFormat.CSV) {
+                writeCsvRecord(writer, values);
+            } else {
+                writeJsonRecord(writer, values);
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static void fillValues(Task task, String[] values) {
+        values[0] = Integer.toString(task.getId());
+        values[2] = Boolean.toString(task.isDone());
+        values[3] = task.getDescription();
+        values[4] = "";
+        values[5] = "";
+        if (task instanceof Deadline) {
+            values[1] = "deadline";
+            values[4] = ((Deadline) task).getByString();
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            values[1] = "event";
+            values[4] = event.getFromString();
+            values[5] = event.getToString();
+        } else if (task instanceof Period) {
+            Period period = (Period) task;
+            values[1] = "period";
+            values[4] = period.getStartDateString();
+            values[5] = period.getEndDateString();
+        } else {
+            values[1] = "todo";
+        }
+    }
+
+    private static void writeCsvRecord(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, values[i]);
+        }
+    }
+
+    /**
+     * Writes a field, quoting it if it holds a comma, a quote, a line break or surrounding spaces.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = !value.equals(value.trim());
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Writes an object holding the ID as a number, done as a boolean and the other fields as strings,
+     * leaving out empty dates.
+     */
+    private static void writeJsonRecord(Writer writer, String[] values) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(values[0]);
+        writer.write(",\"type\":");
+        writeJsonString(writer, values[1]);
+        writer.write(",\"done\":");
+        writer.write(values[2]);
+        writer.write(",\"description\":");
+        writeJsonString(writer, values[3]);
+        for (int i = 4; i < values.length; i++) {
+            if (!values[i].isEmpty()) {
+                writer.write(",\"");
+                writer.write(FIELDS[i]);
+                writer.write("\":");
+                writeJsonString(writer, values[i]);
+            }
+        }
+        writer.write('}');
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                    break;
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,284 @@
+package typecast.storage;
+
+import typecast.exception.TypeCastException;
+import typecast.task.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * An append-only log of task mutations kept next to the snapshot file.
+ * Each line is one record:
+ * <pre>
+ * ADD | T | 0 | read book | #12
+ * MARK | 3
+ * UNMARK | 3
+ * DELETE | 3,7,8
+ * </pre>
+ * Indices are 0-based positions in the task list at the time the mutation was made.
+ * A record may list several ascending indices, which all refer to positions before the mutation.
+ * <p>
+ * The file starts with a {@code GENERATION | 5} line. Every time the journal is folded into a snapshot,
+ * the snapshot records the journal's generation and the next journal gets a higher one. If the program stops
+ * after the snapshot is written but before the journal is removed, the journal is recognized as already folded
+ * in on the next load and is not replayed a second time.
+ */
+class TaskJournal {
+    private static final String SEPARATOR = " | ";
+    private static final String GENERATION_HEADER = "GENERATION" + SEPARATOR;
+
+    private final Path path;
+    private int highestReplayedId;
+    private int generation = 1;
+    private boolean hasFile;
+    private HashSet<Integer> replayedIds;
+
+    /**
+     * Creates a journal backed by the given file. The file is only created on the first append.
+     *
+     * @param path The journal file.
+     */
+    TaskJournal(Path path) {
+        this.path = path;
+    }
+
+    static String addRecord(Task task) {
+        return "ADD" + SEPARATOR + TaskRecordFormat.format(task);
+    }
+
+    static String markRecord(int... indices) {
+        return "MARK" + SEPARATOR + formatIndices(indices);
+    }
+
+    static String unmarkRecord(int... indices) {
+        return "UNMARK" + SEPARATOR + formatIndices(indices);
+    }
+
+    static String deleteRecord(int... indices) {
+        return "DELETE" + SEPARATOR + formatIndices(indices);
+    }
+
+    private static String formatIndices(int[] indices) {
+        assert indices.length > 0 : "A record needs at least one index";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(indices[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends records to the journal in a single write.
+     *
+     * @param records The records to append, without trailing newlines.
+     * @throws IOException If the journal cannot be written.
+     */
+    void append(List<String> records) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (!hasFile) {
+            sb.append(GENERATION_HEADER).append(generation).append("\n");
+        }
+        for (String record : records) {
+            sb.append(record).append("\n");
+        }
+        Files.writeString(path, sb, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        hasFile = true;
+    }
+
+    /**
+     * Replays every record in the journal onto the given tasks, which should hold the snapshot contents.
+     * A journal whose generation the snapshot already holds is removed instead of being replayed.
+     * Corrupted records, such as a half-written last line after a crash, are reported and skipped,
+     * as are added tasks whose ID is already in the list.
+     *
+     * @param tasks The tasks loaded from the snapshot.
+     * @param snapshotGeneration The generation of the last journal folded into the snapshot, or 0 if unknown.
+     * @return The number of records replayed.
+     * @throws IOException If the journal cannot be read.
+     */
+    int replay(List<Task> tasks, int snapshotGeneration) throws IOException {
+        int recordCount = 0;
+        highestReplayedId = 0;
+        replayedIds = null;
+        generation = snapshotGeneration + 1;
+        hasFile = Files.exists(path);
+        if (!hasFile) {
+            return recordCount;
+        }
+
+        boolean isStale = false;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (lineNumber == 1 && line.startsWith(GENERATION_HEADER)) {
+                    int fileGeneration = parseGeneration(line);
+                    if (fileGeneration <= snapshotGeneration) {
+                        // Written into the snapshot just before the program stopped
+                        isStale = true;
+                        break;
+                    }
+                    generation = fileGeneration;
+                    continue;
+                }
+
+                try {
+                    apply(line, tasks);
+                } catch (Exception e) {
+                    System.out.println("Warning: Skipping corrupted journal record " + lineNumber + ": " + line);
+                    System.out.println("  Error: " + e.getMessage());
+                }
+                recordCount++;
+            }
+        }
+        if (isStale) {
+            Files.delete(path);
+            hasFile = false;
+        }
+        replayedIds = null;
+        return recordCount;
+    }
+
+    private static int parseGeneration(String line) {
+        try {
+            return Integer.parseInt(line.substring(GENERATION_HEADER.length()).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void apply(String record, List<Task> tasks) throws TypeCastException {
+        int separatorIndex = record.indexOf(SEPARATOR);
+        if (separatorIndex == -1) {
+            throw new TypeCastException("Invalid journal record: " + record);
+        }
+
+        String operation = record.substring(0, separatorIndex);
+        String argument = record.substring(separatorIndex + SEPARATOR.length()).trim();
+
+        if (operation.equals("ADD")) {
+            Task task = TaskRecordFormat.parse(argument);
+            if (task == null) {
+                throw new TypeCastException("Invalid journal record: " + record);
+            }
+            if (task.getId() > 0 && !getReplayedIds(tasks).add(task.getId())) {
+                throw new TypeCastException("Task #" + task.getId() + " is already in the list.");
+            }
+            highestReplayedId = Math.max(highestReplayedId, task.getId());
+            tasks.add(task);
+            return;
+        }
+
+        int[] indices = parseIndices(argument, tasks.size());
+        switch (operation) {
+            case "MARK":
+                for (int index : indices) {
+                    tasks.get(index).markDone();
+                }
+                break;
+            case "UNMARK":
+                for (int index : indices) {
+                    tasks.get(index).markNotDone();
+                }
+                break;
+            case "DELETE":
+                removeAll(tasks, indices);
+                break;
+            default:
+                throw new TypeCastException("Unknown journal operation: " + operation);
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of ascending indices, all of which must be within the list.
+     */
+    private static int[] parseIndices(String argument, int size) throws TypeCastException {
+        String[] parts = argument.split(",");
+        int[] indices = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                indices[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new TypeCastException("Invalid task index: " + parts[i]);
+            }
+            if (indices[i] < 0 || indices[i] >= size) {
+                throw new TypeCastException("Task index out of range: " + indices[i]);
+            }
+            if (i > 0 && indices[i] <= indices[i - 1]) {
+                throw new TypeCastException("Task indices are not ascending: " + argument);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Removes the tasks at the given ascending indices in a single pass.
+     */
+    private static void removeAll(List<Task> tasks, int[] indices) {
+        int next = 0;
+        int kept = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (next < indices.length && indices[next] == i) {
+                next++;
+            } else {
+                tasks.set(kept++, tasks.get(i));
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
+    }
+
+    /**
+     * Returns the IDs of every task in the list or added during this replay, collecting them on first use.
+     * IDs are never reused, so those of deleted tasks are kept too.
+     */
+    private HashSet<Integer> getReplayedIds(List<Task> tasks) {
+        if (replayedIds == null) {
+            replayedIds = new HashSet<>();
+            for (Task task : tasks) {
+                replayedIds.add(task.getId());
+            }
+        }
+        return replayedIds;
+    }
+
+    /**
+     * Returns the generation of the records being appended, which a snapshot folding them in should record.
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the highest task ID added by the last {@link #replay}, including tasks it later deleted.
+     */
+    int getHighestReplayedId() {
+        return highestReplayedId;
+    }
+
+    /**
+     * Empties the journal after its records have been folded into a new snapshot,
+     * so that later records belong to the next generation.
+     *
+     * @throws IOException If the journal cannot be removed.
+     */
+    void clear() throws IOException {
+        Files.deleteIfExists(path);
+        hasFile = false;
+        generation++;
+    }
+}
@@ -0,0 +1,230 @@
+package typecast.storage;
+
+import typecast.exception.TypeCastException;
+import typecast.task.DateTimeParser;
+import typecast.task.Deadline;
+import typecast.task.DescriptionInterner;
+import typecast.task.Event;
+import typecast.task.Period;
+import typecast.task.Task;
+import typecast.task.Todo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Converts single tasks to and from the pipe-separated text records used in the data file,
+ * e.g. {@code D | 0 | return book | 2024-12-31 2359 | #12}.
+ * The trailing task ID is optional, so records written before tasks had IDs still load.
+ * A data file may start with a {@code NEXT_ID | 13} header holding the ID the next new task will get,
+ * when that is not simply one past the highest ID in the file. In journaled mode the header also holds the
+ * generation of the last journal folded into the file, as in {@code NEXT_ID | 13 | JOURNAL | 4}.
+ */
+final class TaskRecordFormat {
+    private static final String NEXT_ID_HEADER = "NEXT_ID | ";
+    private static final String JOURNAL_FIELD = " | JOURNAL | ";
+    /** A '#' and up to nine digits, so every ID fits in an int. */
+    static final int MAX_ID_LENGTH = 10;
+
+    private TaskRecordFormat() {
+    }
+
+    /**
+     * Formats the header line holding the ID the next new task will get and, unless it is 0,
+     * the generation of the last journal folded into the file.
+     */
+    static String formatNextIdHeader(int nextId, int journalGeneration) {
+        String header = NEXT_ID_HEADER + nextId;
+        return journalGeneration > 0 ? header + JOURNAL_FIELD + journalGeneration : header;
+    }
+
+    /**
+     * Parses the header line holding the ID the next new task will get.
+     *
+     * @param line The trimmed line.
+     * @return The ID, or 0 if the line is not a valid header.
+     */
+    static int parseNextIdHeader(String line) {
+        if (!line.startsWith(NEXT_ID_HEADER)) {
+            return 0;
+        }
+        int end = line.indexOf(JOURNAL_FIELD);
+        return parseCount(line.substring(NEXT_ID_HEADER.length(), end == -1 ? line.length() : end));
+    }
+
+    /**
+     * Parses the generation of the last journal folded into the file from the header line.
+     *
+     * @param line The trimmed line.
+     * @return The generation, or 0 if the line is not a header or does not record one.
+     */
+    static int parseJournalGeneration(String line) {
+        int start = line.indexOf(JOURNAL_FIELD);
+        if (!line.startsWith(NEXT_ID_HEADER) || start == -1) {
+            return 0;
+        }
+        return parseCount(line.substring(start + JOURNAL_FIELD.length()));
+    }
+
+    private static int parseCount(String text) {
+        try {
+            return Math.max(Integer.parseInt(text.trim()), 0);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parses a single non-empty record into a task.
+     *
+     * @param line The trimmed record.
+     * @return The parsed task, or null if the line is the next ID header rather than a task.
+     * @throws TypeCastException If the record is malformed.
+     */
+    static Task parse(String line) throws TypeCastException {
+        return parse(line, null);
+    }
+
+    /**
+     * Parses a single non-empty record into a task, taking its description from the given table if it holds
+     * an equal one.
+     *
+     * @param line The trimmed record.
+     * @param descriptionInterner The table of descriptions to share, or null to keep the record's own.
+     * @return The parsed task, or null if the line is the next ID header rather than a task.
+     * @throws TypeCastException If the record is malformed.
+     */
+    static Task parse(String line, DescriptionInterner descriptionInterner) throws TypeCastException {
+        if (line.startsWith(NEXT_ID_HEADER)) {
+            return null;
+        }
+        String[] parts = line.split(" \\| ");
+
+        if (parts.length < 3) {
+            throw new TypeCastException("Invalid task format: " + line);
+        }
+
+        String type = parts[0].trim();
+        String status = parts[1].trim();
+        String description = parts[2].trim();
+        if (descriptionInterner != null) {
+            description = descriptionInterner.intern(description);
+        }
+
+        Task task = null;
+        int idField;
+
+        switch (type) {
+            case "T":
+                task = new Todo(description);
+                idField = 3;
+                break;
+            case "D":
+                if (parts.length < 4) {
+                    throw new TypeCastException("Invalid deadline format: missing deadline date");
+                }
+                String byStr = parts[3].trim();
+                LocalDateTime by = DateTimeParser.parseDateTime(byStr);
+                if (by == null) {
+                    throw new TypeCastException("Invalid deadline date format: " + byStr);
+                }
+                task = new Deadline(description, by);
+                idField = 4;
+                break;
+            case "E":
+                if (parts.length < 5) {
+                    throw new TypeCastException("Invalid event format: missing time range");
+                }
+                String fromStr = parts[3].trim();
+                String toStr = parts[4].trim();
+                LocalDateTime from = DateTimeParser.parseDateTime(fromStr);
+                LocalDateTime to = DateTimeParser.parseDateTime(toStr);
+                if (from == null || to == null) {
+                    throw new TypeCastException("Invalid event date format");
+                }
+                task = new Event(description, from, to);
+                idField = 5;
+                break;
+            case "P":
+                if (parts.length < 5) {
+                    throw new TypeCastException("Invalid period format: missing date range");
+                }
+                String startStr = parts[3].trim();
+                String endStr = parts[4].trim();
+                LocalDateTime start = DateTimeParser.parseDateTime(startStr);
+                LocalDateTime end = DateTimeParser.parseDateTime(endStr);
+                if (start == null || end == null) {
+                    throw new TypeCastException("Invalid period date format");
+                }
+                task = new Period(description, start, end);
+                idField = 5;
+                break;
+            default:
+                throw new TypeCastException("Unknown task type: " + type);
+        }
+
+        if (status.equals("1")) {
+            task.markDone();
+        }
+        if (parts.length > idField) {
+            setId(task, parts[idField].trim());
+        }
+
+        return task;
+    }
+
+    /**
+     * Sets the ID from a {@code #12} field. Anything else in that position is ignored,
+     * as extra fields were before tasks had IDs.
+     */
+    private static void setId(Task task, String idStr) {
+        if (idStr.length() < 2 || idStr.length() > MAX_ID_LENGTH || idStr.charAt(0) != '#') {
+            return;
+        }
+        int id = 0;
+        for (int i = 1; i < idStr.length(); i++) {
+            char c = idStr.charAt(i);
+            if (c < '0' || c > '9') {
+                return;
+            }
+            id = id * 10 + (c - '0');
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+    }
+
+    /**
+     * Formats the trailing ID field of a record, which is empty for a task without an ID.
+     */
+    private static String formatId(Task task) {
+        return task.getId() > 0 ? " | #" + task.getId() : "";
+    }
+
+    /**
+     * Formats a task as a single record, without a trailing newline.
+     *
+     * @param task The task to format.
+     * @return The record.
+     */
+    static String format(Task task) {
+        String status = task.isDone() ? "1" : "0";
+        String description = task.getDescription();
+
+        if (task instanceof Todo) {
+            return "T | " + status + " | " + description + formatId(task);
+        } else if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            return "D | " + status + " | " + description + " | " + deadline.getByString() + formatId(task);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            return "E | " + status + " | " + description + " | " + event.getFromString() + " | " + event.getToString()
+                    + formatId(task);
+        } else if (task instanceof Period) {
+            Period period = (Period) task;
+            return "P | " + status + " | " + description + " | " + period.getStartDateString() + " | " + period.getEndDateString()
+                    + formatId(task);
+        }
+
+        return "T | " + status + " | " + description + formatId(task);
+    }
+}
@@ -0,0 +1,124 @@
+package typecast.task;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Parses the {@code yyyy-MM-dd HHmm} and {@code yyyy-MM-dd} formats used for task dates in a single pass,
+ * returning null instead of throwing when the text does not match.
+ * It accepts exactly what {@code LocalDateTime.parse} accepts with the pattern {@code yyyy-MM-dd HHmm}:
+ * a day past the end of the month is moved back to the last day, and {@code 2400} means midnight
+ * at the start of the next day.
+ */
+public final class DateTimeParser {
+    private static final int MAX_YEAR = 999_999_999;
+    private static final int MAX_YEAR_DIGITS = 19;
+    private static final int PADDED_YEAR_DIGITS = 4;
+
+    private DateTimeParser() {
+    }
+
+    /**
+     * Parses a date with a time, or a date alone.
+     *
+     * @param text The text to parse, in {@code yyyy-MM-dd HHmm} or {@code yyyy-MM-dd} format.
+     * @param defaultHour The hour to use when only a date is given.
+     * @param defaultMinute The minute to use when only a date is given.
+     * @return The date-time, or null if the text is in neither format.
+     */
+    public static LocalDateTime parse(CharSequence text, int defaultHour, int defaultMinute) {
+        return parse(text, true, defaultHour, defaultMinute);
+    }
+
+    /**
+     * Parses a date with a time.
+     *
+     * @param text The text to parse, in {@code yyyy-MM-dd HHmm} format.
+     * @return The date-time, or null if the text is not in that format.
+     */
+    public static LocalDateTime parseDateTime(CharSequence text) {
+        return parse(text, false, 0, 0);
+    }
+
+    private static LocalDateTime parse(CharSequence text, boolean isDateOnlyAllowed, int defaultHour,
+            int defaultMinute) {
+        int length = text.length();
+        int position = 0;
+
+        // Years beyond four digits must carry a sign, as in "+12024-01-01"
+        boolean isSigned = length > 0 && text.charAt(0) == '+';
+        if (isSigned) {
+            position++;
+        }
+        int yearEnd = position;
+        while (yearEnd < length && isDigit(text.charAt(yearEnd))) {
+            yearEnd++;
+        }
+        int yearDigits = yearEnd - position;
+        if (isSigned ? (yearDigits <= PADDED_YEAR_DIGITS || yearDigits > MAX_YEAR_DIGITS)
+                : yearDigits != PADDED_YEAR_DIGITS) {
+            return null;
+        }
+        // Signed years may be zero-padded, so only the significant digits have to fit
+        while (position < yearEnd - 1 && text.charAt(position) == '0') {
+            position++;
+        }
+        int year = yearEnd - position > 9 ? -1 : digits(text, position, yearEnd - position);
+        position = yearEnd;
+
+        // The rest is "-MM-dd" optionally followed by " HHmm"
+        int remaining = length - position;
+        boolean hasTime = remaining == 11;
+        if (!(hasTime || (isDateOnlyAllowed && remaining == 6))
+                || text.charAt(position) != '-' || text.charAt(position + 3) != '-'
+                || (hasTime && text.charAt(position + 6) != ' ')) {
+            return null;
+        }
+        int month = digits(text, position + 1, 2);
+        int day = digits(text, position + 4, 2);
+        int hour = hasTime ? digits(text, position + 7, 2) : defaultHour;
+        int minute = hasTime ? digits(text, position + 9, 2) : defaultMinute;
+        return resolve(year, month, day, hour, minute);
+    }
+
+    /**
+     * Builds a date-time from its fields using the same rules as {@code LocalDateTime.parse}.
+     *
+     * @return The date-time, or null if a field is out of range.
+     */
+    public static LocalDateTime resolve(int year, int month, int day, int hour, int minute) {
+        if (year < 1 || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > 31
+                || hour < 0 || hour > 24 || minute < 0 || minute > 59 || (hour == 24 && minute != 0)) {
+            return null;
+        }
+
+        int dayOfMonth = Math.min(day, YearMonth.of(year, month).lengthOfMonth());
+        if (hour == 24) {
+            if (year == MAX_YEAR && month == 12 && dayOfMonth == 31) {
+                // There is no next day
+                return null;
+            }
+            return LocalDateTime.of(year, month, dayOfMonth, 0, 0).plusDays(1);
+        }
+        return LocalDateTime.of(year, month, dayOfMonth, hour, minute);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Reads a run of ASCII digits, returning -1 if any character is not one.
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
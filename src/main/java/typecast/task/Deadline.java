@@ -44,19 +44,14 @@ public class Deadline extends Task {
      * @throws IllegalArgumentException If the format is invalid.
      */
     private LocalDateTime parseDateTime(String dateTimeStr) {
-        try {
-            return LocalDateTime.parse(dateTimeStr, INPUT_FORMATTER);
-        } catch (Exception e) {
-            try {
-                DateTimeFormatter dateOnlyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                return LocalDateTime.parse(dateTimeStr + " 2359",
-                        DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-            } catch (Exception ex) {
-                throw new IllegalArgumentException(
-                        "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm "
-                                + "(e.g., 2019-12-02 1800)");
-            }
+        // A date on its own means the end of that day
+        LocalDateTime dateTime = DateTimeParser.parse(dateTimeStr, 23, 59);
+        if (dateTime == null) {
+            throw new IllegalArgumentException(
+                    "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm "
+                            + "(e.g., 2019-12-02 1800)");
         }
+        return dateTime;
     }
 
     /**
@@ -78,12 +73,12 @@ public class Deadline extends Task {
     }
 
     /**
-     * Returns a string representation of the deadline task.
+     * Formats the deadline task for display.
      *
      * @return The formatted deadline task string.
      */
     @Override
-    public String toString() {
+    protected String formatDisplayString() {
         return "[D][" + getStatus() + "] " + description + " (by: " + by.format(OUTPUT_FORMATTER) + ")";
     }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package typecast.task;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * A bounded table of task descriptions, so that tasks with the same description can share one string.
+ * The table has a fixed number of slots, picked by hash; a description replaces whatever other description
+ * was in its slot, so the table never grows. Slots hold weak references, so a description is forgotten
+ * once no task uses it. This is not thread-safe.
+ */
+public class DescriptionInterner {
+    /** The approximate size of a {@code String} object and the header of its backing array. */
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final WeakReference<String>[] slots;
+    private final int mask;
+    private int sharedCount;
+    private long savedBytes;
+
+    /**
+     * Creates an empty table.
+     * @param capacity The number of slots, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public DescriptionInterner(int capacity) {
+        assert capacity > 0 : "The table needs at least one slot";
+        int slotCount = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        slots = (WeakReference<String>[]) new WeakReference<?>[slotCount];
+        mask = slotCount - 1;
+    }
+
+    /**
+     * Returns an equal description already in the table, or records and returns the given one.
+     */
+    public String intern(String description) {
+        int hash = description.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        WeakReference<String> reference = slots[slot];
+        String existing = reference == null ? null : reference.get();
+        if (existing == null || !existing.equals(description)) {
+            slots[slot] = new WeakReference<>(description);
+            return description;
+        }
+
+        if (existing != description) {
+            sharedCount++;
+            savedBytes += estimateSize(description);
+        }
+        return existing;
+    }
+
+    /**
+     * Returns how many times a description was replaced by an equal one from the table.
+     */
+    public int getSharedCount() {
+        return sharedCount;
+    }
+
+    /**
+     * Returns roughly how many bytes of strings were freed by sharing descriptions,
+     * counting every replaced description, including those of tasks deleted since.
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    private static long estimateSize(String description) {
+        for (int i = 0; i < description.length(); i++) {
+            if (description.charAt(i) > 0xFF) {
+                // Strings outside Latin-1 store two bytes per character
+                return STRING_OVERHEAD_BYTES + 2L * description.length();
+            }
+        }
+        return STRING_OVERHEAD_BYTES + description.length();
+    }
+}
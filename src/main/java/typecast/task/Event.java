@@ -49,18 +49,13 @@ public class Event extends Task {
      * @throws IllegalArgumentException If the format is invalid.
      */
     private LocalDateTime parseDateTime(String dateTimeStr) {
-        try {
-            return LocalDateTime.parse(dateTimeStr, INPUT_FORMATTER);
-        } catch (Exception e) {
-            try {
-                return LocalDateTime.parse(dateTimeStr + " 0000",
-                        DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-            } catch (Exception ex) {
-                throw new IllegalArgumentException(
-                        "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm "
-                                + "(e.g., 2019-12-02 1800)");
-            }
+        LocalDateTime dateTime = DateTimeParser.parse(dateTimeStr, 0, 0);
+        if (dateTime == null) {
+            throw new IllegalArgumentException(
+                    "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm "
+                            + "(e.g., 2019-12-02 1800)");
         }
+        return dateTime;
     }
 
     /**
@@ -100,12 +95,12 @@ public class Event extends Task {
     }
 
     /**
-     * Returns a string representation of the event task.
+     * Formats the event task for display.
      *
      * @return The formatted event task string.
      */
     @Override
-    public String toString() {
+    protected String formatDisplayString() {
         return "[E][" + getStatus() + "] " + description
                 + " (from: " + from.format(OUTPUT_FORMATTER)
                 + " to: " + to.format(OUTPUT_FORMATTER) + ")";
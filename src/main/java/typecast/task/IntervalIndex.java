@@ -0,0 +1,171 @@
+package typecast.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+/**
+ * An interval tree over task dates, answering "which tasks overlap this range" without scanning every task.
+ * It is a treap ordered by start time (ties broken by insertion order), where every node also
+ * tracks the latest end time in its subtree so that subtrees ending before the range can be skipped,
+ * and subtrees starting after the range are not entered at all.
+ * A single point in time, such as a deadline, is stored as an interval that starts and ends at that point.
+ */
+class IntervalIndex {
+    private final IdentityHashMap<Task, Node> nodesByTask = new IdentityHashMap<>();
+    private final Random random = new Random(0);
+    private Node root;
+    private long nextSequence;
+
+    /**
+     * Adds a task covering the given range. The bounds may be given in either order.
+     */
+    void add(Task task, LocalDateTime start, LocalDateTime end) {
+        if (nodesByTask.containsKey(task)) {
+            return;
+        }
+        if (end.isBefore(start)) {
+            LocalDateTime earlier = end;
+            end = start;
+            start = earlier;
+        }
+
+        Node node = new Node(task, start, end, nextSequence++, random.nextInt());
+        nodesByTask.put(task, node);
+        Node[] parts = split(root, node, false);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Removes a task, if it is in the index.
+     */
+    void remove(Task task) {
+        Node node = nodesByTask.remove(task);
+        if (node == null) {
+            return;
+        }
+        Node[] lower = split(root, node, false);
+        Node[] upper = split(lower[1], node, true);
+        assert upper[0] == node : "Interval index is out of sync";
+        root = merge(lower[0], upper[1]);
+    }
+
+    /**
+     * Returns the number of tasks in the index.
+     */
+    int size() {
+        return nodesByTask.size();
+    }
+
+    /**
+     * Returns the start of an indexed task's range, or null if the task is not in the index.
+     */
+    LocalDateTime getStart(Task task) {
+        Node node = nodesByTask.get(task);
+        return node == null ? null : node.start;
+    }
+
+    /**
+     * Returns the tasks whose range overlaps {@code [from, to]}, ordered by start time.
+     */
+    ArrayList<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> matches = new ArrayList<>();
+        collectOverlapping(root, from, to, matches);
+        return matches;
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, ArrayList<Task> matches) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, matches);
+        if (node.start.isAfter(to)) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (!node.end.isBefore(from)) {
+            matches.add(node.task);
+        }
+        collectOverlapping(node.right, from, to, matches);
+    }
+
+    /**
+     * Splits a tree into the nodes ordered before the pivot and the rest.
+     * When inclusive, the pivot itself goes to the first part.
+     */
+    private static Node[] split(Node node, Node pivot, boolean isInclusive) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        int comparison = node.compareTo(pivot);
+        if (comparison < 0 || (isInclusive && comparison == 0)) {
+            Node[] parts = split(node.right, pivot, isInclusive);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        } else {
+            Node[] parts = split(node.left, pivot, isInclusive);
+            node.left = parts[1];
+            node.update();
+            return new Node[] {parts[0], node};
+        }
+    }
+
+    /**
+     * Joins two trees where every node of the first is ordered before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.update();
+            return first;
+        } else {
+            second.left = merge(first, second.left);
+            second.update();
+            return second;
+        }
+    }
+
+    private static class Node implements Comparable<Node> {
+        private final Task task;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long sequence;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Task task, LocalDateTime start, LocalDateTime end, long sequence, int priority) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int comparison = start.compareTo(other.start);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package typecast.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * An incrementally maintained trigram index over lower-cased task descriptions.
+ * Every indexed task gets a slot number in insertion order, and each trigram maps to the sorted slots
+ * of the descriptions containing it. A substring query intersects the slot lists of its trigrams and
+ * confirms each candidate with {@code contains}, so it returns exactly the tasks a full scan would,
+ * in list order, while only looking at tasks that share all of the query's trigrams.
+ * Queries shorter than a trigram fall back to a scan over the cached lower-cased descriptions.
+ */
+class KeywordIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, SlotList> postings = new HashMap<>();
+    private final IdentityHashMap<Task, Integer> slotsByTask = new IdentityHashMap<>();
+    private final ArrayList<Task> tasksBySlot = new ArrayList<>();
+    private final ArrayList<String> descriptionsBySlot = new ArrayList<>();
+    private int removedCount;
+    private boolean hasDuplicates;
+
+    /**
+     * Indexes a task appended to the end of the list.
+     */
+    void add(Task task) {
+        if (slotsByTask.containsKey(task)) {
+            // The same task object is in the list twice; slot order can no longer mirror list order
+            hasDuplicates = true;
+            return;
+        }
+
+        int slot = tasksBySlot.size();
+        String description = task.getDescription().toLowerCase();
+        slotsByTask.put(task, slot);
+        tasksBySlot.add(task);
+        descriptionsBySlot.add(description);
+
+        for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+            long gram = gramAt(description, i);
+            SlotList slots = postings.computeIfAbsent(gram, key -> new SlotList());
+            // A description repeating a trigram adds its slot once
+            if (slots.last() != slot) {
+                slots.add(slot);
+            }
+        }
+    }
+
+    /**
+     * Removes a task from the index, rebuilding it from the given list once most slots are stale.
+     *
+     * @param task The removed task.
+     * @param remainingTasks The tasks left in the list, in order.
+     */
+    void remove(Task task, List<Task> remainingTasks) {
+        Integer slot = slotsByTask.remove(task);
+        if (slot == null) {
+            return;
+        }
+        tasksBySlot.set(slot, null);
+        descriptionsBySlot.set(slot, null);
+        removedCount++;
+
+        if (hasDuplicates || removedCount > slotsByTask.size()) {
+            rebuild(remainingTasks);
+        }
+    }
+
+    /**
+     * Moves a task into the slot of the task it replaces in the list, indexing its description there if it differs.
+     * Postings of the old description are left in place; like those of removed tasks, they only add candidates
+     * that are then checked against the current description.
+     *
+     * @param task The replaced task.
+     * @param replacement The task now at its position in the list.
+     * @return Whether the replacement was indexed; if not, the index should be rebuilt.
+     */
+    boolean replace(Task task, Task replacement) {
+        Integer slot = slotsByTask.get(task);
+        if (slot == null || slotsByTask.containsKey(replacement)) {
+            return false;
+        }
+        slotsByTask.remove(task);
+        slotsByTask.put(replacement, slot);
+        tasksBySlot.set(slot, replacement);
+
+        String description = replacement.getDescription().toLowerCase();
+        if (!description.equals(descriptionsBySlot.get(slot))) {
+            descriptionsBySlot.set(slot, description);
+            for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+                postings.computeIfAbsent(gramAt(description, i), key -> new SlotList()).insert(slot);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-indexes every task in the list from scratch.
+     */
+    void rebuild(List<Task> tasks) {
+        postings.clear();
+        slotsByTask.clear();
+        tasksBySlot.clear();
+        descriptionsBySlot.clear();
+        removedCount = 0;
+        hasDuplicates = false;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Returns the tasks whose lower-cased description contains the lower-cased keyword, in list order.
+     *
+     * @param keyword The keyword to search for.
+     * @param tasks The indexed tasks, used when the index cannot answer directly.
+     * @param limit The maximum number of matches to return.
+     */
+    ArrayList<Task> find(String keyword, List<Task> tasks, int limit) {
+        String needle = keyword.toLowerCase();
+        ArrayList<Task> matches = new ArrayList<>();
+
+        if (hasDuplicates) {
+            for (Task task : tasks) {
+                if (matches.size() < limit && task.getDescription().toLowerCase().contains(needle)) {
+                    matches.add(task);
+                }
+            }
+            return matches;
+        }
+
+        if (needle.length() < GRAM_LENGTH) {
+            for (int slot = 0; slot < tasksBySlot.size() && matches.size() < limit; slot++) {
+                String description = descriptionsBySlot.get(slot);
+                if (description != null && description.contains(needle)) {
+                    matches.add(tasksBySlot.get(slot));
+                }
+            }
+            return matches;
+        }
+
+        for (int slot : candidateSlots(needle)) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            String description = descriptionsBySlot.get(slot);
+            if (description != null && description.contains(needle)) {
+                matches.add(tasksBySlot.get(slot));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the sorted slots that contain every trigram of the needle.
+     */
+    private int[] candidateSlots(String needle) {
+        ArrayList<SlotList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            SlotList slots = postings.get(gramAt(needle, i));
+            if (slots == null) {
+                return new int[0];
+            }
+            lists.add(slots);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+            candidateCount = intersect(candidates, candidateCount, lists.get(i));
+        }
+        return Arrays.copyOf(candidates, candidateCount);
+    }
+
+    /**
+     * Keeps the candidates that also appear in the given list, returning the new candidate count.
+     */
+    private static int intersect(int[] candidates, int candidateCount, SlotList other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = candidates[i];
+            j = other.ceilingIndex(slot, j);
+            if (j < other.size && other.slots[j] == slot) {
+                candidates[kept++] = slot;
+            }
+        }
+        return kept;
+    }
+
+    private static long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * A growable, ascending list of slots.
+     */
+    private static class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        /**
+         * Adds a slot at its place in the order, unless it is already in the list.
+         */
+        void insert(int slot) {
+            int index = ceilingIndex(slot, 0);
+            if (index < size && slots[index] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        int last() {
+            return size == 0 ? -1 : slots[size - 1];
+        }
+
+        /**
+         * Returns the index of the first slot not less than the given one, searching from {@code from}.
+         */
+        int ceilingIndex(int slot, int from) {
+            int low = from;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (slots[middle] < slot) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
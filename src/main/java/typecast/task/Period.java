@@ -29,17 +29,12 @@ public class Period extends Task {
      * Parses a date-time string into LocalDateTime.
      */
     private LocalDateTime parseDateTime(String dateTimeStr) {
-        try {
-            return LocalDateTime.parse(dateTimeStr, INPUT_FORMATTER);
-        } catch (Exception e) {
-            try {
-                return LocalDateTime.parse(dateTimeStr + " 0000", 
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
-            } catch (Exception ex) {
-                throw new IllegalArgumentException(
-                    "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm (e.g., 2024-01-15 1000)");
-            }
+        LocalDateTime dateTime = DateTimeParser.parse(dateTimeStr, 0, 0);
+        if (dateTime == null) {
+            throw new IllegalArgumentException(
+                "Invalid date format. Please use yyyy-MM-dd or yyyy-MM-dd HHmm (e.g., 2024-01-15 1000)");
         }
+        return dateTime;
     }
 
     public LocalDateTime getStartDate() {
@@ -65,7 +60,7 @@ public class Period extends Task {
     }
 
     @Override
-    public String toString() {
+    protected String formatDisplayString() {
         return "[P][" + getStatus() + "] " + description + 
                " (period: " + startDate.format(OUTPUT_FORMATTER) + 
                " to " + endDate.format(OUTPUT_FORMATTER) + ")";
@@ -8,6 +8,8 @@ public class Task {
 
     protected String description;
     protected boolean isDone;
+    private int id;
+    private String displayString;
 
     /**
      * Constructs a Task with the specified description.
@@ -29,6 +31,35 @@ public class Task {
         return (isDone ? "X" : " ");
     }
 
+    /**
+     * Returns whether the task is done.
+     *
+     * @return true if the task is done.
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
+    /**
+     * Returns the ID of the task, which stays the same when other tasks are deleted.
+     *
+     * @return The ID, or 0 if the task has not been added to a {@link TaskList} yet.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the task. IDs are assigned by {@link TaskList} and restored by storage,
+     * so this should not be called otherwise.
+     *
+     * @param id The positive ID.
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task IDs must be positive";
+        this.id = id;
+    }
+
     /**
      * Returns the description of the task.
      *
@@ -38,27 +69,67 @@ public class Task {
         return description;
     }
 
+    /**
+     * Replaces the description with an equal string, so that tasks with the same description can share one.
+     */
+    void shareDescription(String description) {
+        assert description.equals(this.description) : "A shared description must equal the task's own";
+        this.description = description;
+    }
+
     /**
      * Marks the task as done.
+     * Tasks held in a {@link TaskList} should be marked through the list so that its counts stay correct.
      */
     public void markDone() {
-        isDone = true;
+        if (!isDone) {
+            isDone = true;
+            clearDisplayString();
+        }
     }
 
     /**
      * Marks the task as not done.
+     * Tasks held in a {@link TaskList} should be unmarked through the list so that its counts stay correct.
      */
     public void markNotDone() {
-        isDone = false;
+        if (isDone) {
+            isDone = false;
+            clearDisplayString();
+        }
     }
 
     /**
-     * Returns a string representation of the task.
+     * Returns a string representation of the task, as shown in lists.
+     * The string is formatted on first use and kept until the task is marked or unmarked,
+     * so listing tasks that have not changed does not format their dates again.
      *
      * @return The formatted task string.
      */
     @Override
     public String toString() {
+        String cached = displayString;
+        if (cached == null) {
+            cached = formatDisplayString();
+            displayString = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Formats the task for display. Subclasses that show more details override this rather than
+     * {@link #toString}, and must call {@link #clearDisplayString} if those details change.
+     *
+     * @return The formatted task string.
+     */
+    protected String formatDisplayString() {
         return "[T][" + getStatus() + "] " + description;
     }
+
+    /**
+     * Discards the cached display string, so that it is formatted again on next use.
+     */
+    protected void clearDisplayString() {
+        displayString = null;
+    }
 }
\ No newline at end of file
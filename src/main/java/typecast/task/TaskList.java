@@ -2,34 +2,109 @@ package typecast.task;
 
 import typecast.exception.TypeCastException;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * Manages the list of tasks, providing operations to add, delete, and access tasks.
+ * The list keeps live counts of done tasks and of each task type, so tasks in the list
+ * should only be marked and unmarked through {@link #markTaskDone} and {@link #markTaskNotDone}.
+ * Every task in the list has a unique ID; IDs are handed out in increasing order and never reused.
+ * Tasks are held in a {@link TaskTree}, so getting, adding and deleting a task at any position,
+ * and finding the position of a task, take O(log n) time.
+ * A list may be given a {@link DescriptionInterner}, in which case tasks with equal descriptions share one string.
  */
 public class TaskList {
-    private final ArrayList<Task> tasks;
+    private final TaskTree tasks;
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final IntervalIndex deadlineIndex = new IntervalIndex();
+    private final IntervalIndex scheduleIndex = new IntervalIndex();
+    private final HashMap<Class<? extends Task>, Integer> typeCounts = new HashMap<>();
+    private final HashMap<Integer, Task> tasksById = new HashMap<>();
+    private final DescriptionInterner descriptionInterner;
+    private int completedCount;
+    private int nextId = 1;
 
     /**
      * Creates an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new TaskTree();
+        this.descriptionInterner = null;
     }
 
     /**
      * Creates a TaskList with existing tasks.
      */
-    public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+    public TaskList(List<Task> tasks) {
+        this(tasks, 1);
     }
 
     /**
-     * Adds a task to the list.
+     * Creates a TaskList with existing tasks, keeping the IDs they already have.
+     * Tasks without an ID, or with one already taken by an earlier task, are given new IDs.
+     * @param tasks The tasks, such as those loaded from storage
+     * @param nextId The lowest ID that may be given to a new task, so that IDs of deleted tasks are not reused
+     */
+    public TaskList(List<Task> tasks, int nextId) {
+        this(tasks, nextId, null);
+    }
+
+    /**
+     * Creates a TaskList with existing tasks, keeping the IDs they already have,
+     * and sharing equal descriptions among these and later tasks through the given table.
+     * @param tasks The tasks, such as those loaded from storage
+     * @param nextId The lowest ID that may be given to a new task, so that IDs of deleted tasks are not reused
+     * @param descriptionInterner The table of descriptions to share, or null to keep every task's own
+     */
+    public TaskList(List<Task> tasks, int nextId, DescriptionInterner descriptionInterner) {
+        this.tasks = new TaskTree(tasks);
+        this.nextId = Math.max(nextId, 1);
+        this.descriptionInterner = descriptionInterner;
+        for (Task task : tasks) {
+            shareDescription(task);
+        }
+        keywordIndex.rebuild(tasks);
+
+        ArrayList<Task> tasksWithoutId = new ArrayList<>();
+        for (Task task : tasks) {
+            addToTimeIndex(task);
+            count(task, 1);
+            if (task.getId() > 0 && tasksById.putIfAbsent(task.getId(), task) == null) {
+                this.nextId = Math.max(this.nextId, task.getId() + 1);
+            } else {
+                tasksWithoutId.add(task);
+            }
+        }
+        for (Task task : tasksWithoutId) {
+            assignId(task);
+        }
+    }
+
+    /**
+     * Adds a task to the list, giving it a new ID.
      */
     public void add(Task task) {
+        assignId(task);
+        shareDescription(task);
         tasks.add(task);
+        keywordIndex.add(task);
+        addToTimeIndex(task);
+        count(task, 1);
+    }
+
+    private void shareDescription(Task task) {
+        if (descriptionInterner != null) {
+            task.shareDescription(descriptionInterner.intern(task.getDescription()));
+        }
+    }
+
+    private void assignId(Task task) {
+        task.setId(nextId++);
+        tasksById.put(task.getId(), task);
     }
 
     /**
@@ -42,7 +117,125 @@ public class TaskList {
         if (index < 0 || index >= tasks.size()) {
             throw new TypeCastException("Task index out of range.");
         }
-        return tasks.remove(index);
+        Task removedTask = tasks.remove(index);
+        tasksById.remove(removedTask.getId());
+        keywordIndex.remove(removedTask, tasks);
+        removeFromTimeIndex(removedTask);
+        count(removedTask, -1);
+        return removedTask;
+    }
+
+    private void count(Task task, int delta) {
+        typeCounts.merge(task.getClass(), delta, Integer::sum);
+        if (task.isDone()) {
+            completedCount += delta;
+        }
+    }
+
+    /**
+     * Deletes the tasks at the given indices, taking O(k log n) time for k tasks.
+     * @param indices Distinct 0-based indices in ascending order, all referring to positions before the deletion
+     * @return The deleted tasks, in list order
+     * @throws TypeCastException if any index is out of range, in which case nothing is deleted
+     */
+    public ArrayList<Task> deleteAll(int[] indices) throws TypeCastException {
+        checkIndices(indices);
+        // Deleting from the back keeps the earlier indices valid
+        Task[] removed = new Task[indices.length];
+        for (int i = indices.length - 1; i >= 0; i--) {
+            removed[i] = tasks.remove(indices[i]);
+        }
+        ArrayList<Task> removedTasks = new ArrayList<>(List.of(removed));
+
+        for (Task removedTask : removedTasks) {
+            tasksById.remove(removedTask.getId());
+            keywordIndex.remove(removedTask, tasks);
+            removeFromTimeIndex(removedTask);
+            count(removedTask, -1);
+        }
+        return removedTasks;
+    }
+
+    /**
+     * Replaces the tasks in a range with other tasks, leaving the rest of the list and its indexes untouched.
+     * Replacement tasks keep their IDs unless another task in the list already has it, like tasks
+     * given to the constructor; tasks without a free ID get a new one.
+     * @param from The index of the first task to replace (0-based)
+     * @param to The index after the last task to replace
+     * @param replacements The tasks to put in their place, in order; they must not already be in the list
+     */
+    public void replace(int from, int to, List<Task> replacements) {
+        assert 0 <= from && from <= to && to <= tasks.size() : "Range must lie within the list";
+        int size = tasks.size();
+        ArrayList<Task> removedTasks = new ArrayList<>(tasks.subList(from, to));
+        for (Task removedTask : removedTasks) {
+            tasksById.remove(removedTask.getId());
+            removeFromTimeIndex(removedTask);
+            count(removedTask, -1);
+        }
+        for (Task task : replacements) {
+            if (task.getId() > 0 && tasksById.putIfAbsent(task.getId(), task) == null) {
+                nextId = Math.max(nextId, task.getId() + 1);
+            } else {
+                assignId(task);
+            }
+            shareDescription(task);
+            addToTimeIndex(task);
+            count(task, 1);
+        }
+
+        // Replaced tasks hand their keyword slot to their replacement, and tasks appended at the end get new slots
+        int pairedCount = Math.min(removedTasks.size(), replacements.size());
+        boolean isKeywordIndexStale = false;
+        for (int i = 0; i < pairedCount; i++) {
+            tasks.set(from + i, replacements.get(i));
+            isKeywordIndexStale |= !keywordIndex.replace(removedTasks.get(i), replacements.get(i));
+        }
+        if (removedTasks.size() > pairedCount) {
+            tasks.subList(from + pairedCount, to).clear();
+            for (Task removedTask : removedTasks.subList(pairedCount, removedTasks.size())) {
+                keywordIndex.remove(removedTask, tasks);
+            }
+        } else if (replacements.size() > pairedCount) {
+            tasks.addAll(to, replacements.subList(pairedCount, replacements.size()));
+            if (to == size) {
+                for (Task task : replacements.subList(pairedCount, replacements.size())) {
+                    keywordIndex.add(task);
+                }
+            } else {
+                isKeywordIndexStale = true;
+            }
+        }
+        if (isKeywordIndexStale) {
+            keywordIndex.rebuild(tasks);
+        }
+    }
+
+    private void checkIndices(int[] indices) throws TypeCastException {
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0 || indices[i] >= tasks.size()) {
+                throw new TypeCastException("Task index out of range.");
+            }
+            assert i == 0 || indices[i] > indices[i - 1] : "Indices must be distinct and ascending";
+        }
+    }
+
+    private void addToTimeIndex(Task task) {
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            deadlineIndex.add(deadline, deadline.getBy(), deadline.getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            scheduleIndex.add(event, event.getFrom(), event.getTo());
+        } else if (task instanceof Period) {
+            Period period = (Period) task;
+            scheduleIndex.add(period, period.getStartDate(), period.getEndDate());
+        }
+    }
+
+    private void removeFromTimeIndex(Task task) {
+        deadlineIndex.remove(task);
+        scheduleIndex.remove(task);
     }
 
     /**
@@ -54,13 +247,43 @@ public class TaskList {
         return tasks.get(index);
     }
 
+    /**
+     * Gets the task with the given ID.
+     * @param id The ID of the task
+     * @return The task, or null if no task in the list has that ID
+     */
+    public Task getById(int id) {
+        return tasksById.get(id);
+    }
+
+    /**
+     * Finds the current position of the task with the given ID.
+     * @param id The ID of the task
+     * @return The index of the task (0-based), or -1 if no task in the list has that ID
+     */
+    public int indexOfId(int id) {
+        Task task = tasksById.get(id);
+        return task == null ? -1 : tasks.indexOf(task);
+    }
+
+    /**
+     * Returns the ID the next new task will be given.
+     */
+    public int getNextId() {
+        return nextId;
+    }
+
     /**
      * Marks a task as done at the specified index.
      * @param index The index of the task (0-based)
      * @throws IndexOutOfBoundsException if the index is out of range
      */
     public void markTaskDone(int index) {
-        tasks.get(index).markDone();
+        Task task = tasks.get(index);
+        if (!task.isDone()) {
+            task.markDone();
+            completedCount++;
+        }
     }
 
     /**
@@ -69,7 +292,35 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if the index is out of range
      */
     public void markTaskNotDone(int index) {
-        tasks.get(index).markNotDone();
+        Task task = tasks.get(index);
+        if (task.isDone()) {
+            task.markNotDone();
+            completedCount--;
+        }
+    }
+
+    /**
+     * Marks the tasks at the given indices as done.
+     * @param indices Distinct 0-based indices in ascending order
+     * @throws TypeCastException if any index is out of range, in which case nothing is marked
+     */
+    public void markTasksDone(int[] indices) throws TypeCastException {
+        checkIndices(indices);
+        for (int index : indices) {
+            markTaskDone(index);
+        }
+    }
+
+    /**
+     * Marks the tasks at the given indices as not done.
+     * @param indices Distinct 0-based indices in ascending order
+     * @throws TypeCastException if any index is out of range, in which case nothing is unmarked
+     */
+    public void markTasksNotDone(int[] indices) throws TypeCastException {
+        checkIndices(indices);
+        for (int index : indices) {
+            markTaskNotDone(index);
+        }
     }
 
     /**
@@ -80,65 +331,131 @@ public class TaskList {
     }
 
     /**
-     * Returns the ArrayList of tasks (for storage purposes).
+     * Returns a read-only view of the tasks (for storage purposes).
      */
-    public ArrayList<Task> getTasks() {
-        return tasks;
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
     }
 
     /**
-     * Finds tasks that contain the given keyword in their description.
-     * Uses Java Streams for filtering.
+     * Finds tasks that contain the given keyword in their description, ignoring case.
+     * Uses the keyword index, so only tasks sharing the keyword's trigrams are examined.
      * @param keyword The keyword to search for
-     * @return List of matching tasks
+     * @return List of matching tasks, in list order
      */
     public ArrayList<Task> findTasks(String keyword) {
-        return tasks.stream()
-                .filter(task -> task.getDescription().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return keywordIndex.find(keyword, tasks, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds deadlines due at or before the given time.
+     * Uses the deadline index, so deadlines in subtrees that cannot match are skipped.
+     * @param by The latest due time to include
+     * @return List of matching deadlines, earliest first
+     */
+    public ArrayList<Task> getTasksDueBy(LocalDateTime by) {
+        return deadlineIndex.findOverlapping(LocalDateTime.MIN, by);
+    }
+
+    /**
+     * Finds deadlines, events and periods that fall within or overlap the given range, inclusive.
+     * Uses the deadline and schedule indexes, so tasks in subtrees that cannot match are skipped.
+     * @param from The start of the range
+     * @param to The end of the range
+     * @return List of matching tasks, ordered by when they start
+     */
+    public ArrayList<Task> getTasksBetween(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> deadlines = deadlineIndex.findOverlapping(from, to);
+        ArrayList<Task> scheduled = scheduleIndex.findOverlapping(from, to);
+
+        ArrayList<Task> matches = new ArrayList<>(deadlines.size() + scheduled.size());
+        int i = 0;
+        int j = 0;
+        while (i < deadlines.size() && j < scheduled.size()) {
+            LocalDateTime deadlineStart = deadlineIndex.getStart(deadlines.get(i));
+            LocalDateTime scheduledStart = scheduleIndex.getStart(scheduled.get(j));
+            if (!scheduledStart.isBefore(deadlineStart)) {
+                matches.add(deadlines.get(i++));
+            } else {
+                matches.add(scheduled.get(j++));
+            }
+        }
+        matches.addAll(deadlines.subList(i, deadlines.size()));
+        matches.addAll(scheduled.subList(j, scheduled.size()));
+        return matches;
     }
 
     /**
      * Gets all tasks that are marked as done.
-     * Uses Java Streams for filtering.
+     * Returns early once every completed task has been found.
      * @return List of completed tasks
      */
     public ArrayList<Task> getCompletedTasks() {
-        return tasks.stream()
-                .filter(task -> task.getStatus().equals("X"))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return getTasksWithStatus(true, completedCount);
     }
 
     /**
      * Gets all tasks that are not done yet.
-     * Uses Java Streams for filtering.
+     * Returns early once every pending task has been found.
      * @return List of pending tasks
      */
     public ArrayList<Task> getPendingTasks() {
-        return tasks.stream()
-                .filter(task -> task.getStatus().equals(" "))
-                .collect(Collectors.toCollection(ArrayList::new));
+        return getTasksWithStatus(false, tasks.size() - completedCount);
+    }
+
+    private ArrayList<Task> getTasksWithStatus(boolean isDone, int expectedCount) {
+        ArrayList<Task> matches = new ArrayList<>(expectedCount);
+        for (Task task : tasks) {
+            if (matches.size() == expectedCount) {
+                break;
+            }
+            if (task.isDone() == isDone) {
+                matches.add(task);
+            }
+        }
+        return matches;
     }
 
     /**
      * Checks if there are any tasks matching the keyword.
-     * Uses Java Streams.
+     * Uses the keyword index.
      * @param keyword The keyword to search for
      * @return true if at least one task matches
      */
     public boolean hasTaskWithKeyword(String keyword) {
-        return tasks.stream()
-                .anyMatch(task -> task.getDescription().toLowerCase().contains(keyword.toLowerCase()));
+        return !keywordIndex.find(keyword, tasks, 1).isEmpty();
     }
 
     /**
      * Counts the number of completed tasks.
-     * Uses Java Streams.
      * @return Number of completed tasks
      */
     public long countCompletedTasks() {
-        return tasks.stream()
-                .filter(task -> task.getStatus().equals("X"))
-                .count();
+        return completedCount;
+    }
+
+    /**
+     * Counts the number of tasks that are not done yet.
+     * @return Number of pending tasks
+     */
+    public long countPendingTasks() {
+        return tasks.size() - completedCount;
+    }
+
+    /**
+     * Returns the table used to share equal descriptions, which reports how much was saved.
+     * @return The table, or null if descriptions are not shared
+     */
+    public DescriptionInterner getDescriptionInterner() {
+        return descriptionInterner;
+    }
+
+    /**
+     * Counts the number of tasks of the given type.
+     * @param type The task class, such as {@code Deadline.class}
+     * @return Number of tasks of exactly that type
+     */
+    public int countTasksOfType(Class<? extends Task> type) {
+        return typeCounts.getOrDefault(type, 0);
     }
-}
\ No newline at end of file
+}
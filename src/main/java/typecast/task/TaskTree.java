@@ -0,0 +1,350 @@
+package typecast.task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A list of tasks with O(log n) access, insertion and removal at any position.
+ * It is an implicit treap: nodes are ordered by position rather than by a key, and every node tracks
+ * the size of its subtree, so the node at a position is found by descending on subtree sizes.
+ * Nodes also keep their parent, so the position of a task is found by walking up from its node,
+ * which makes {@link #indexOf} O(log n) as well. Tasks are compared by identity, as {@link Task}
+ * does not override {@code equals}.
+ */
+class TaskTree extends AbstractList<Task> {
+    private final IdentityHashMap<Task, Node> nodesByTask = new IdentityHashMap<>();
+    private final Random random = new Random(0);
+    private Node root;
+    private int duplicateCount;
+
+    /**
+     * Creates an empty list.
+     */
+    TaskTree() {
+    }
+
+    /**
+     * Creates a list holding the given tasks in order, in linear time.
+     */
+    TaskTree(List<Task> tasks) {
+        // Build the tree along its right spine, as in constructing a Cartesian tree
+        Node[] spine = new Node[64];
+        int spineSize = 0;
+        for (Task task : tasks) {
+            Node node = newNode(task);
+            Node lastPopped = null;
+            while (spineSize > 0 && spine[spineSize - 1].priority < node.priority) {
+                lastPopped = spine[--spineSize];
+                lastPopped.update();
+            }
+            node.left = lastPopped;
+            if (spineSize > 0) {
+                spine[spineSize - 1].right = node;
+            }
+            if (spineSize == spine.length) {
+                spine = Arrays.copyOf(spine, spineSize * 2);
+            }
+            spine[spineSize++] = node;
+        }
+        while (spineSize > 0) {
+            spine[--spineSize].update();
+        }
+        setRoot(tasks.isEmpty() ? null : spine[0]);
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return nodeAt(index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Node node = nodeAt(index);
+        Task previous = node.task;
+        node.task = task;
+        unregister(previous, node);
+        register(task, node);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        checkPositionIndex(index);
+        Node node = newNode(task);
+        Node[] parts = split(root, index);
+        setRoot(merge(merge(parts[0], node), parts[1]));
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkElementIndex(index);
+        Node[] lower = split(root, index);
+        Node[] upper = split(lower[1], 1);
+        Node node = upper[0];
+        setRoot(merge(lower[0], upper[1]));
+        unregister(node.task, node);
+        modCount++;
+        return node.task;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        Node[] lower = split(root, fromIndex);
+        Node[] upper = split(lower[1], toIndex - fromIndex);
+        setRoot(merge(lower[0], upper[1]));
+        for (Node node = first(upper[0]); node != null; node = successor(node)) {
+            unregister(node.task, node);
+        }
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        nodesByTask.clear();
+        duplicateCount = 0;
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Returns the position of the task, comparing by identity.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (duplicateCount > 0) {
+            // The map only knows one node per task, which may not be the first
+            return super.indexOf(o);
+        }
+        Node node = nodesByTask.get(o);
+        return node == null ? -1 : rankOf(node);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return nodesByTask.containsKey(o);
+    }
+
+    /**
+     * Iterates in order in O(1) amortized time per task, instead of looking up each position.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private Node next = first(root);
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Task task = next.task;
+                next = successor(next);
+                return task;
+            }
+        };
+    }
+
+    private Node newNode(Task task) {
+        Node node = new Node(task, random.nextInt());
+        register(task, node);
+        return node;
+    }
+
+    private void register(Task task, Node node) {
+        if (nodesByTask.put(task, node) != null) {
+            duplicateCount++;
+        }
+    }
+
+    /**
+     * Forgets a node that no longer holds the given task or is no longer in the tree.
+     */
+    private void unregister(Task task, Node node) {
+        if (duplicateCount == 0) {
+            nodesByTask.remove(task);
+            return;
+        }
+
+        if (nodesByTask.get(task) != node) {
+            // Another copy of the task is mapped and still in the list
+            duplicateCount--;
+            return;
+        }
+        nodesByTask.remove(task);
+        for (Node other = first(root); other != null; other = successor(other)) {
+            if (other.task == task) {
+                nodesByTask.put(task, other);
+                duplicateCount--;
+                return;
+            }
+        }
+    }
+
+    private void setRoot(Node node) {
+        root = node;
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private Node nodeAt(int index) {
+        checkElementIndex(index);
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static int rankOf(Node node) {
+        int rank = size(node.left);
+        for (Node child = node, parent = node.parent; parent != null; child = parent, parent = parent.parent) {
+            if (parent.right == child) {
+                rank += size(parent.left) + 1;
+            }
+        }
+        return rank;
+    }
+
+    private static Node first(Node node) {
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            return first(node.right);
+        }
+        Node child = node;
+        Node parent = node.parent;
+        while (parent != null && parent.right == child) {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Splits a tree into its first {@code count} nodes and the rest.
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        int leftSize = size(node.left);
+        if (count <= leftSize) {
+            Node[] parts = split(node.left, count);
+            node.left = parts[1];
+            node.update();
+            if (parts[0] != null) {
+                parts[0].parent = null;
+            }
+            return new Node[] {parts[0], node};
+        } else {
+            Node[] parts = split(node.right, count - leftSize - 1);
+            node.right = parts[0];
+            node.update();
+            if (parts[1] != null) {
+                parts[1].parent = null;
+            }
+            return new Node[] {node, parts[1]};
+        }
+    }
+
+    /**
+     * Joins two trees, placing every node of the first before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.update();
+            return first;
+        } else {
+            second.left = merge(first, second.left);
+            second.update();
+            return second;
+        }
+    }
+
+    private static class Node {
+        private Task task;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        Node(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+
+        /**
+         * Recomputes the subtree size and points the children back at this node.
+         */
+        void update() {
+            size = 1 + TaskTree.size(left) + TaskTree.size(right);
+            if (left != null) {
+                left.parent = this;
+            }
+            if (right != null) {
+                right.parent = this;
+            }
+        }
+    }
+}
@@ -15,12 +15,12 @@ public class Todo extends Task {
     }
 
     /**
-     * Returns a string representation of the todo task.
+     * Formats the todo task for display.
      *
      * @return The formatted todo task string.
      */
     @Override
-    public String toString() {
+    protected String formatDisplayString() {
         return "[T][" + getStatus() + "] " + description;
     }
 }
\ No newline at end of file
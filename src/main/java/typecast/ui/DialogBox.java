@@ -1,50 +1,84 @@
 package typecast.ui;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.beans.binding.DoubleExpression;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
-
-import java.io.IOException;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * The box is built in code rather than loaded from FXML, as parsing the FXML again for every message
+ * was most of the cost of showing one.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final Insets PADDING = new Insets(15.0, 5.0, 15.0, 5.0);
+    private static final double PREFERRED_WIDTH = 400.0;
+    private static final double PICTURE_SIZE = 99.0;
+
+    private final Label dialog;
+    private final ImageView displayPicture;
+
+    private boolean isUser = true;
 
     private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        dialog = new Label(text);
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        dialog.setPadding(PADDING);
 
+        displayPicture = new ImageView(img);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        getChildren().setAll(dialog, displayPicture);
+        setAlignment(Pos.TOP_RIGHT);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(PREFERRED_WIDTH);
+        setPadding(PADDING);
+    }
+
+    /**
+     * Shows a message in this dialog box, placing the picture on the side of its speaker.
+     * Lets a dialog box be reused for another message instead of loading a new one.
+     */
+    void setMessage(String text, Image img, boolean isUser) {
         dialog.setText(text);
         displayPicture.setImage(img);
+        if (this.isUser != isUser) {
+            flip();
+        }
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Wraps the text so that the whole dialog box fits in the given width.
+     */
+    void bindTextWidth(DoubleExpression width) {
+        double reservedWidth = displayPicture.getFitWidth() + getPadding().getLeft() + getPadding().getRight();
+        dialog.prefWidthProperty().bind(width.subtract(reservedWidth));
+        dialog.maxWidthProperty().bind(dialog.prefWidthProperty());
+    }
+
+    /**
+     * Flips the dialog box between the user's layout, with the ImageView on the right,
+     * and TypeCast's layout, with the ImageView on the left.
      */
     private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        FXCollections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        isUser = !isUser;
+        if (isUser) {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        } else {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
@@ -0,0 +1,44 @@
+package typecast.ui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the dialog history. The list view only creates enough cells to fill the window
+ * and reuses them while scrolling, so each cell keeps a single dialog box and refills it.
+ */
+class DialogCell extends ListCell<DialogMessage> {
+    private static final double SCROLL_BAR_WIDTH = 20.0;
+
+    private final Image userImage;
+    private final Image typeCastImage;
+    private DialogBox dialogBox;
+
+    DialogCell(Image userImage, Image typeCastImage) {
+        this.userImage = userImage;
+        this.typeCastImage = typeCastImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        // Let the list view size the cell to its own width, so long messages wrap
+        setPrefWidth(0);
+        setMouseTransparent(true);
+        setFocusTraversable(false);
+    }
+
+    @Override
+    protected void updateItem(DialogMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        if (dialogBox == null) {
+            dialogBox = DialogBox.getUserDialog("", userImage);
+            dialogBox.bindTextWidth(getListView().widthProperty().subtract(SCROLL_BAR_WIDTH));
+        }
+        dialogBox.setMessage(message.getText(), message.isUser() ? userImage : typeCastImage, message.isUser());
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,31 @@
+package typecast.ui;
+
+/**
+ * A message in the dialog history. Only the text and its speaker are kept;
+ * the dialog box showing it is created when the message scrolls into view.
+ */
+class DialogMessage {
+    private final String text;
+    private final boolean isUser;
+
+    private DialogMessage(String text, boolean isUser) {
+        this.text = text;
+        this.isUser = isUser;
+    }
+
+    static DialogMessage fromUser(String text) {
+        return new DialogMessage(text, true);
+    }
+
+    static DialogMessage fromTypeCast(String text) {
+        return new DialogMessage(text, false);
+    }
+
+    String getText() {
+        return text;
+    }
+
+    boolean isUser() {
+        return isUser;
+    }
+}
@@ -1,29 +1,50 @@
 package typecast.ui;
 
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import typecast.TypeCast;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Controller for the main GUI.
+ * The dialog history is a list view of messages, which only creates dialog boxes for the messages
+ * in view, and it keeps at most a fixed number of messages, dropping the oldest.
+ * Commands run one at a time, in the order they were entered, on a worker thread, so that saving
+ * or listing many tasks does not freeze the window; a progress indicator shows while any are running.
  */
 public class MainWindow extends AnchorPane {
+    private static final int DEFAULT_HISTORY_LIMIT = 10_000;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<DialogMessage> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator workingIndicator;
 
     private TypeCast typeCast;
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "typecast-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int runningCommandCount;
+    private boolean isExiting;
+    private final ObservableList<DialogMessage> messages = FXCollections.observableArrayList();
+    private int historyLimit = DEFAULT_HISTORY_LIMIT;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/User.png"));
     private Image typeCastImage = new Image(this.getClass().getResourceAsStream("/images/TypeCast.png"));
@@ -33,13 +54,13 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogList.setItems(messages);
+        dialogList.setFocusTraversable(false);
+        dialogList.setCellFactory(listView -> new DialogCell(userImage, typeCastImage));
         
         // Show welcome message
         String welcome = "Hello! I'm TypeCast\nWhat can I do for you?";
-        dialogContainer.getChildren().add(
-            DialogBox.getTypeCastDialog(welcome, typeCastImage)
-        );
+        showMessages(DialogMessage.fromTypeCast(welcome));
     }
 
     /**
@@ -54,31 +75,91 @@ public class MainWindow extends AnchorPane {
         // Load existing tasks and show count
         if (typeCast.getTaskList().size() > 0) {
             String loadMessage = "Loaded " + typeCast.getTaskList().size() + " task(s) from previous session.";
-            dialogContainer.getChildren().add(
-                DialogBox.getTypeCastDialog(loadMessage, typeCastImage)
-            );
+            showMessages(DialogMessage.fromTypeCast(loadMessage));
         }
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing TypeCast's reply
-      * and then appends them to the dialog container.
-      * Clears the user input after processing and exits the application on {@code bye}.
+     * Sets how many messages the dialog history keeps, dropping the oldest messages beyond it.
+     *
+     * @param historyLimit The maximum number of messages, counting the user's and TypeCast's separately.
+     */
+    public void setHistoryLimit(int historyLimit) {
+        assert historyLimit > 0 : "The history must keep at least one message";
+        this.historyLimit = historyLimit;
+        trimHistory();
+    }
+
+    /**
+     * Shows the user's input and queues it to be run, adding TypeCast's reply to the dialog history
+     * once the command has run. Clears the user input and exits the application after {@code bye}.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = typeCast.getResponse(input);
+        if (isExiting) {
+            return;
+        }
         
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getTypeCastDialog(response, typeCastImage)
-        );
+        showMessages(DialogMessage.fromUser(input));
         userInput.clear();
         
-        // Exit application if bye command
-        if (input.trim().equalsIgnoreCase("bye")) {
-            Platform.exit();
+        // Stop taking commands after bye, and exit once it has run
+        boolean isBye = input.trim().equalsIgnoreCase("bye");
+        if (isBye) {
+            isExiting = true;
+            userInput.setDisable(true);
+            sendButton.setDisable(true);
+        }
+        
+        setRunningCommandCount(runningCommandCount + 1);
+        commandExecutor.execute(() -> {
+            String response;
+            try {
+                response = typeCast.getResponse(input);
+            } catch (RuntimeException e) {
+                // Still reply, so that the indicator is cleared and later commands are answered
+                response = "Error: " + e.getMessage();
+            }
+            String reply = response;
+            Platform.runLater(() -> {
+                setRunningCommandCount(runningCommandCount - 1);
+                showMessages(DialogMessage.fromTypeCast(reply));
+                if (isBye) {
+                    Platform.exit();
+                }
+            });
+        });
+    }
+
+    /**
+     * Waits for queued commands to run, then shuts TypeCast down on the same worker thread.
+     * Called when the application stops.
+     */
+    public void shutdown() {
+        commandExecutor.execute(typeCast::shutdown);
+        commandExecutor.shutdown();
+        try {
+            commandExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void setRunningCommandCount(int count) {
+        runningCommandCount = count;
+        workingIndicator.setVisible(count > 0);
+    }
+
+    private void showMessages(DialogMessage... newMessages) {
+        messages.addAll(newMessages);
+        trimHistory();
+        dialogList.scrollTo(messages.size() - 1);
+    }
+
+    private void trimHistory() {
+        if (messages.size() > historyLimit) {
+            messages.remove(0, messages.size() - historyLimit);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,13 @@
 package typecast.ui;
 
-import java.util.ArrayList;
-import java.util.Scanner;
+import typecast.parser.CommandResult;
 
-import typecast.task.Task;
-import typecast.task.TaskList;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Scanner;
 
 /**
  * Handles all user interface interactions.
@@ -13,6 +16,7 @@ import typecast.task.TaskList;
 public class Ui {
 
     private static final String LINE = "____________________________________________________________";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
     private final Scanner scanner;
 
     /**
@@ -81,97 +85,44 @@ public class Ui {
     }
 
     /**
-     * Displays a general message.
+     * Displays an error for one line of a batch file on standard error, so scripts can tell it from the output.
      *
-     * @param message The message to display.
+     * @param lineNumber The line that failed, counting from 1.
+     * @param message The error message to display.
      */
-    public void showMessage(String message) {
-        System.out.println(LINE);
-        System.out.println(message);
-        System.out.println(LINE);
+    public void showLineError(int lineNumber, String message) {
+        System.err.println("Line " + lineNumber + ": " + message);
     }
 
     /**
-     * Displays the list of all tasks.
+     * Displays a general message.
      *
-     * @param tasks The TaskList to display.
+     * @param message The message to display.
      */
-    public void showTaskList(TaskList tasks) {
+    public void showMessage(String message) {
         System.out.println(LINE);
-        System.out.println("Here are the tasks in your list:");
-        for (int i = 0; i < tasks.size(); i++) {
-            System.out.println((i + 1) + "." + tasks.get(i).toString());
-        }
+        System.out.println(message);
         System.out.println(LINE);
     }
 
     /**
-     * Displays the list of matching tasks from a search.
+     * Displays the result of a command.
+     * Its message is written straight to a buffered stream, so long listings are never held as one String.
      *
-     * @param matchingTasks The list of tasks that match the search criteria.
+     * @param result The result to display.
      */
-    public void showMatchingTasks(ArrayList<Task> matchingTasks) {
-        System.out.println(LINE);
-        if (matchingTasks.isEmpty()) {
-            System.out.println("No matching tasks found.");
-        } else {
-            System.out.println("Here are the matching tasks in your list:");
-            for (int i = 0; i < matchingTasks.size(); i++) {
-                System.out.println((i + 1) + "." + matchingTasks.get(i).toString());
-            }
+    public void showResult(CommandResult result) {
+        System.out.println(LINE);
+        // Not closed, as that would close System.out
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE);
+        try {
+            result.renderTo(out);
+            out.flush();
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println();
+            System.out.println("Error displaying the result: " + e.getMessage());
         }
-        System.out.println(LINE);
-    }
-
-    /**
-     * Displays a message when a task is marked as done.
-     *
-     * @param task The task that was marked.
-     */
-    public void showTaskMarked(Task task) {
-        System.out.println(LINE);
-        System.out.println("Nice! I've marked this task as done:");
-        System.out.println("  " + task.toString());
-        System.out.println(LINE);
-    }
-
-    /**
-     * Displays a message when a task is unmarked.
-     *
-     * @param task The task that was unmarked.
-     */
-    public void showTaskUnmarked(Task task) {
-        System.out.println(LINE);
-        System.out.println("OK, I've marked this task as not done yet:");
-        System.out.println("  " + task.toString());
-        System.out.println(LINE);
-    }
-
-    /**
-     * Displays a message when a task is added.
-     *
-     * @param task The task that was added.
-     * @param totalTasks The total number of tasks after adding.
-     */
-    public void showTaskAdded(Task task, int totalTasks) {
-        System.out.println(LINE);
-        System.out.println("Got it. I've added this task:");
-        System.out.println("  " + task.toString());
-        System.out.println("Now you have " + totalTasks + " tasks in the list.");
-        System.out.println(LINE);
-    }
-
-    /**
-     * Displays a message when a task is deleted.
-     *
-     * @param task The task that was deleted.
-     * @param totalTasks The total number of tasks after deletion.
-     */
-    public void showTaskDeleted(Task task, int totalTasks) {
-        System.out.println(LINE);
-        System.out.println("Noted. I've removed this task:");
-        System.out.println("  " + task.toString());
-        System.out.println("Now you have " + totalTasks + " tasks in the list.");
+        System.out.println();
         System.out.println(LINE);
     }
 
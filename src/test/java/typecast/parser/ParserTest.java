@@ -5,11 +5,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.io.TempDir;
 import typecast.exception.TypeCastException;
 import typecast.storage.Storage;
+import typecast.task.Deadline;
+import typecast.task.Event;
 import typecast.task.TaskList;
+import typecast.task.Todo;
 import typecast.ui.Ui;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,10 +28,12 @@ public class ParserTest {
     private TaskList tasks;
     private Ui ui;
     private Storage storage;
+    private Path tempDir;
     private final ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
     
     @BeforeEach
     public void setUp(@TempDir Path tempDir) {
+        this.tempDir = tempDir;
         tasks = new TaskList();
         ui = new Ui();
         storage = new Storage(tempDir.resolve("test_tasks.txt").toString());
@@ -109,9 +117,22 @@ public class ParserTest {
             () -> Parser.parseCommand("event meeting /from 2pm", tasks, ui, storage));
     }
     
+    @Test
+    public void parseCommand_toBeforeFrom_throwsUsageMessage() {
+        TypeCastException eventError = assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("event meeting /to 2024-12-31 1600 /from 2024-12-31 1400", tasks, ui, storage));
+        assertTrue(eventError.getMessage().startsWith("The format of event should be"));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("event meeting /from /to 2024-12-31 1600", tasks, ui, storage));
+        TypeCastException periodError = assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("period trip /to 2024-12-15 /within 2024-12-01", tasks, ui, storage));
+        assertTrue(periodError.getMessage().startsWith("The format of period should be"));
+        assertEquals(0, tasks.size());
+    }
+    
     @Test
     public void parseCommand_mark_marksTask() throws TypeCastException {
-        tasks.add(new typecast.task.Todo("read book"));
+        tasks.add(new Todo("read book"));
         assertEquals(" ", tasks.get(0).getStatus());
         
         Parser.parseCommand("mark 1", tasks, ui, storage);
@@ -121,7 +142,7 @@ public class ParserTest {
     
     @Test
     public void parseCommand_markInvalidIndex_throwsException() throws TypeCastException {
-        tasks.add(new typecast.task.Todo("read book"));
+        tasks.add(new Todo("read book"));
         
         assertThrows(TypeCastException.class,
             () -> Parser.parseCommand("mark 2", tasks, ui, storage));
@@ -137,7 +158,7 @@ public class ParserTest {
     
     @Test
     public void parseCommand_unmark_unmarksTask() throws TypeCastException {
-        tasks.add(new typecast.task.Todo("read book"));
+        tasks.add(new Todo("read book"));
         tasks.markTaskDone(0);
         assertEquals("X", tasks.get(0).getStatus());
         
@@ -148,8 +169,8 @@ public class ParserTest {
     
     @Test
     public void parseCommand_delete_deletesTask() throws TypeCastException {
-        tasks.add(new typecast.task.Todo("read book"));
-        tasks.add(new typecast.task.Todo("buy groceries"));
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("buy groceries"));
         assertEquals(2, tasks.size());
         
         Parser.parseCommand("delete 1", tasks, ui, storage);
@@ -160,7 +181,7 @@ public class ParserTest {
     
     @Test
     public void parseCommand_deleteInvalidIndex_throwsException() throws TypeCastException {
-        tasks.add(new typecast.task.Todo("read book"));
+        tasks.add(new Todo("read book"));
         
         assertThrows(TypeCastException.class,
             () -> Parser.parseCommand("delete 5", tasks, ui, storage));
@@ -173,4 +194,258 @@ public class ParserTest {
         assertThrows(TypeCastException.class,
             () -> Parser.parseCommand("xyz", tasks, ui, storage));
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void parseCommandForGui_due_listsDeadlinesDueByDate() throws TypeCastException {
+        tasks.add(new Deadline("return book", "2024-12-31 2359"));
+        tasks.add(new Deadline("pay rent", "2025-01-01 0900"));
+        
+        String response = Parser.parseCommandForGui("due 2024-12-31", tasks, storage);
+        
+        assertTrue(response.startsWith("Here are the deadlines due by Dec 31 2024, 11:59PM:"));
+        assertTrue(response.contains("return book"));
+        assertFalse(response.contains("pay rent"));
+    }
+    
+    @Test
+    public void parseCommandForGui_due_numbersDeadlinesByListPosition() throws TypeCastException {
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("pay rent", "2024-12-30 0900"));
+        tasks.add(new Deadline("return book", "2024-12-01 2359"));
+
+        String response = Parser.parseCommandForGui("due 2024-12-31", tasks, storage);
+
+        String[] lines = response.split("\n");
+        assertTrue(lines[1].startsWith("3.[D][ ] return book"));
+        assertTrue(lines[1].endsWith("(#3)"));
+        assertTrue(lines[2].startsWith("2.[D][ ] pay rent"));
+    }
+    
+    @Test
+    public void parseCommandForGui_between_validatesRange() throws TypeCastException {
+        tasks.add(new Event("meetup", "2024-07-01 1800", "2024-07-01 2100"));
+        
+        assertTrue(Parser.parseCommandForGui("between 2024-07-01 /to 2024-07-01", tasks, storage)
+                .contains("meetup"));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("between 2024-07-02 /to 2024-07-01", tasks, storage));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("between 2024-07-01", tasks, storage));
+    }
+    
+    @Test
+    public void parseCommandForGui_stats_reportsCounts() throws TypeCastException {
+        Parser.parseCommand("todo read book", tasks, ui, storage);
+        Parser.parseCommand("deadline return book /by 2024-12-31", tasks, ui, storage);
+        Parser.parseCommand("mark 2", tasks, ui, storage);
+        
+        String response = Parser.parseCommandForGui("stats", tasks, storage);
+        
+        assertTrue(response.contains("Total: 2"));
+        assertTrue(response.contains("Done: 1"));
+        assertTrue(response.contains("Pending: 1"));
+        assertTrue(response.contains("Deadlines: 1"));
+    }
+    
+    @Test
+    public void execute_bye_returnsExitResult() throws TypeCastException {
+        CommandResult result = Parser.execute("bye", tasks, storage);
+        
+        assertTrue(result.isExit());
+        assertEquals("Bye. Hope to see you again soon!", result.getMessage());
+        assertFalse(Parser.execute("list", tasks, storage).isExit());
+    }
+    
+    @Test
+    public void execute_commandWordOnlyMatchesWholeWord() {
+        assertThrows(TypeCastException.class, () -> Parser.execute("listing", tasks, storage));
+        assertThrows(TypeCastException.class, () -> Parser.execute("list everything", tasks, storage));
+        assertThrows(TypeCastException.class, () -> Parser.execute("todoread book", tasks, storage));
+        assertThrows(TypeCastException.class, () -> Parser.execute("", tasks, storage));
+    }
+    
+    @Test
+    public void parseCommand_batch_defersSaveUntilEnd() throws TypeCastException {
+        Parser.parseCommand("batch begin", tasks, ui, storage);
+        Parser.parseCommand("todo read book", tasks, ui, storage);
+        Parser.parseCommand("todo buy bread", tasks, ui, storage);
+        assertTrue(storage.isInBatch());
+        
+        Parser.parseCommand("batch end", tasks, ui, storage);
+        
+        assertFalse(storage.isInBatch());
+        assertEquals(2, tasks.size());
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("batch end", tasks, ui, storage));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("batch", tasks, ui, storage));
+    }
+    
+    @Test
+    public void parseCommandForGui_nestedBatchEnd_saysNothingIsSavedYet() throws TypeCastException {
+        Parser.parseCommandForGui("batch begin", tasks, storage);
+        Parser.parseCommandForGui("batch begin", tasks, storage);
+        Parser.parseCommandForGui("todo read book", tasks, storage);
+        
+        assertTrue(Parser.parseCommandForGui("batch end", tasks, storage).startsWith("Inner batch ended."));
+        assertTrue(storage.isInBatch());
+        assertEquals("Batch ended. Your changes have been saved.",
+                Parser.parseCommandForGui("batch end", tasks, storage));
+    }
+    
+    @Test
+    public void parseCommand_deleteRangesAndList_usesOriginalNumbering() throws TypeCastException {
+        for (int i = 1; i <= 8; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        
+        Parser.parseCommand("delete 2-4,7,3", tasks, ui, storage);
+        
+        assertEquals(4, tasks.size());
+        assertEquals("task 1", tasks.get(0).getDescription());
+        assertEquals("task 5", tasks.get(1).getDescription());
+        assertEquals("task 6", tasks.get(2).getDescription());
+        assertEquals("task 8", tasks.get(3).getDescription());
+    }
+    
+    @Test
+    public void parseCommand_markInvalidRange_marksNothing() throws TypeCastException {
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("buy bread"));
+        
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("mark 1,3", tasks, ui, storage));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("mark 2-1", tasks, ui, storage));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("mark 1,", tasks, ui, storage));
+        assertEquals(0, tasks.countCompletedTasks());
+        
+        Parser.parseCommand("mark 1-2", tasks, ui, storage);
+        assertEquals(2, tasks.countCompletedTasks());
+    }
+    
+    @Test
+    public void parseCommand_taskIds_referToSameTaskAfterDelete() throws TypeCastException {
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("buy bread"));
+        tasks.add(new Todo("pay rent"));
+        
+        Parser.parseCommand("delete 1", tasks, ui, storage);
+        Parser.parseCommand("mark #3", tasks, ui, storage);
+        
+        assertEquals("X", tasks.get(1).getStatus());
+        assertTrue(Parser.parseCommandForGui("list", tasks, storage).contains("pay rent (#3)"));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommand("delete #1", tasks, ui, storage));
+        
+        Parser.parseCommand("delete #2,#3", tasks, ui, storage);
+        assertEquals(0, tasks.size());
+    }
+    
+    @Test
+    public void parseCommandForGui_listFiltersAndPages_keepsListNumbers() throws TypeCastException {
+        for (int i = 1; i <= 5; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        tasks.add(new Deadline("return book", "2024-12-31"));
+        tasks.markTasksDone(new int[] {1, 3, 5});
+        
+        assertEquals("Here are the matching tasks in your list:\n"
+                + "2.[T][X] task 2 (#2)\n"
+                + "4.[T][X] task 4 (#4)",
+                Parser.parseCommandForGui("list done todo", tasks, storage));
+        assertEquals("Here are the tasks in your list:\n"
+                + "5.[T][ ] task 5 (#5)\n"
+                + "6.[D][X] return book (by: Dec 31 2024, 11:59PM) (#6)\n"
+                + "Page 3 of 3.",
+                Parser.parseCommandForGui("list 3 --page-size 2", tasks, storage));
+        assertTrue(Parser.parseCommandForGui("list pending 1", tasks, storage).endsWith("Page 1 of 1."));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("list 4 --page-size 2", tasks, storage));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("list --page-size 0", tasks, storage));
+    }
+    
+    @Test
+    public void parseCommandForGui_listLongListWithoutPage_showsFirstPage() throws TypeCastException {
+        for (int i = 1; i <= 120; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        
+        String firstPage = Parser.parseCommandForGui("list", tasks, storage);
+        assertTrue(firstPage.contains("\n50.[T][ ] task 50 (#50)\n"));
+        assertFalse(firstPage.contains("task 51"));
+        assertTrue(firstPage.endsWith("Page 1 of 3. Use 'list 2' for the next page, or 'list all' to see every task."));
+        String everything = Parser.parseCommandForGui("list all", tasks, storage);
+        assertTrue(everything.endsWith("\n120.[T][ ] task 120 (#120)"));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("list all 2", tasks, storage));
+    }
+    
+    @Test
+    public void parseCommandForGui_exportThenImport_copiesTasks() throws TypeCastException {
+        Parser.parseCommandForGui("todo read \"War, and Peace\"", tasks, storage);
+        Parser.parseCommandForGui("deadline return book /by 2024-12-31", tasks, storage);
+        Parser.parseCommandForGui("event meeting /from 2024-08-06 1400 /to 2024-08-06 1600", tasks, storage);
+        Parser.parseCommandForGui("period trip /within 2024-12-01 /to 2024-12-15", tasks, storage);
+        Parser.parseCommandForGui("mark 2", tasks, storage);
+        String list = Parser.parseCommandForGui("list", tasks, storage);
+        
+        for (String format : new String[] {"csv", "jsonl"}) {
+            String file = tempDir.resolve("export." + format).toString();
+            assertEquals("Exported 4 task(s) to " + file + " as " + format.toUpperCase() + ".",
+                    Parser.parseCommandForGui("export " + file, tasks, storage));
+            
+            TaskList imported = new TaskList();
+            assertTrue(Parser.parseCommandForGui("import " + file, imported, storage)
+                    .startsWith("Imported 4 task(s) from " + file + "."));
+            assertEquals(list, Parser.parseCommandForGui("list", imported, storage));
+        }
+    }
+    
+    @Test
+    public void parseCommandForGui_importInvalidRecords_skipsThemWithLineNumbers()
+            throws TypeCastException, IOException {
+        Path file = tempDir.resolve("tasks.csv");
+        Files.writeString(file, "type,done,description,start,end\n"
+                + "todo,false,read book,,\n"
+                + "todo,false,  ,,\n"
+                + "\n"
+                + "deadline,true,return book,2024-13-01,\n"
+                + "chore,false,sweep,,\n"
+                + "event,yes,meeting,2024-08-06 1400,2024-08-06 1600\n"
+                + "todo,\"true,buy bread\n"
+                + "period,true,trip,2024-12-01,2024-12-15\n", StandardCharsets.UTF_8);
+        
+        String response = Parser.parseCommandForGui("import " + file, tasks, storage);
+        
+        assertTrue(response.startsWith("Imported 2 task(s) from " + file + ".\nSkipped 5 invalid record(s):"));
+        assertTrue(response.contains("\n  Line 3: The description of a todo cannot be empty."));
+        for (String line : new String[] {"Line 5: ", "Line 6: Unknown task type: chore", "Line 7: ", "Line 8: "}) {
+            assertTrue(response.contains(line), line);
+        }
+        assertEquals(2, tasks.size());
+        assertEquals("X", tasks.get(1).getStatus());
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("import " + tempDir.resolve("missing.csv"), tasks, storage));
+        assertThrows(TypeCastException.class,
+            () -> Parser.parseCommandForGui("export " + tempDir.resolve("test_tasks.txt"), tasks, storage));
+    }
+    
+    @Test
+    public void parseCommandForGui_importDescriptionWithLineBreak_skipsRecord()
+            throws TypeCastException, IOException {
+        Path file = tempDir.resolve("tasks.jsonl");
+        Files.writeString(file, "{\"type\":\"todo\",\"description\":\"read book\\nT | 0 | injected | #9\"}\n"
+                + "{\"type\":\"todo\",\"description\":\"buy\\u000d bread\"}\n"
+                + "{\"type\":\"todo\",\"description\":\"sweep\"}\n", StandardCharsets.UTF_8);
+        
+        String response = Parser.parseCommandForGui("import " + file, tasks, storage);
+        
+        assertTrue(response.startsWith("Imported 1 task(s) from " + file + ".\nSkipped 2 invalid record(s):"));
+        assertTrue(response.contains("\n  Line 1: The description cannot contain line breaks"));
+        assertEquals(1, tasks.size());
+        assertEquals("sweep", tasks.get(0).getDescription());
+    }
+}
@@ -3,16 +3,27 @@ package typecast.storage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.io.TempDir;
+import typecast.exception.TypeCastException;
 import typecast.task.Deadline;
+import typecast.task.DescriptionInterner;
 import typecast.task.Event;
+import typecast.task.Period;
 import typecast.task.Task;
+import typecast.task.TaskList;
 import typecast.task.Todo;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -194,4 +205,552 @@ public class StorageTest {
         assertEquals(" ", loadedTasks.get(1).getStatus());  // Deadline was not done
         assertEquals("X", loadedTasks.get(2).getStatus());  // Event was done
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void recordAdd_journaled_doesNotRewriteDataFile() {
+        storage.setJournaled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        tasks.add(todo);
+        
+        storage.recordAdd(todo, tasks);
+        
+        assertEquals(0, new File(testFilePath).length());
+        assertTrue(new File(testFilePath + ".journal").exists());
+    }
+    
+    @Test
+    public void loadTasks_journalLeftAfterCompaction_doesNotReplayItAgain() throws IOException, TypeCastException {
+        storage.setJournaled(true);
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("buy groceries"));
+        storage.saveTasks(tasks.getTasks());
+        Deadline deadline = new Deadline("return book", "2024-12-31 2359");
+        tasks.add(deadline);
+        storage.recordAdd(deadline, tasks.getTasks());
+        tasks.markTaskDone(2);
+        storage.recordMark(2, tasks.getTasks());
+        tasks.delete(0);
+        storage.recordDelete(0, tasks.getTasks());
+
+        // Stopping after the snapshot is written but before the journal is cleared leaves the journal behind
+        Path journalPath = Path.of(testFilePath + ".journal");
+        byte[] journal = Files.readAllBytes(journalPath);
+        storage.compact(tasks.getTasks());
+        Files.write(journalPath, journal);
+
+        Storage reloaded = new Storage(testFilePath);
+        reloaded.setJournaled(true);
+        ArrayList<Task> loadedTasks = reloaded.loadTasks();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("buy groceries", loadedTasks.get(0).getDescription());
+        assertEquals(3, loadedTasks.get(1).getId());
+        assertEquals("X", loadedTasks.get(1).getStatus());
+        assertFalse(Files.exists(journalPath));
+
+        // Later changes go to a new journal, which is replayed
+        Todo todo = new Todo("call mom");
+        todo.setId(4);
+        loadedTasks.add(todo);
+        reloaded.recordAdd(todo, loadedTasks);
+        assertEquals(3, new Storage(testFilePath).loadTasks().size());
+    }
+
+    @Test
+    public void loadTasks_journalAddsLoadedId_skipsDuplicate() throws IOException {
+        Todo todo = new Todo("read book");
+        todo.setId(1);
+        storage.saveTasks(List.of(todo));
+        Files.writeString(Path.of(testFilePath + ".journal"), "ADD | T | 0 | read book | #1\n");
+
+        assertEquals(1, storage.loadTasks().size());
+    }
+
+    @Test
+    public void loadTasks_journaled_replaysSnapshotAndJournal() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("buy groceries"));
+        storage.saveTasks(tasks);
+        
+        storage.setJournaled(true);
+        Deadline deadline = new Deadline("return book", "2024-12-31 2359");
+        tasks.add(deadline);
+        storage.recordAdd(deadline, tasks);
+        tasks.get(2).markDone();
+        storage.recordMark(2, tasks);
+        tasks.remove(0);
+        storage.recordDelete(0, tasks);
+        
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).loadTasks();
+        
+        assertEquals(2, loadedTasks.size());
+        assertEquals("buy groceries", loadedTasks.get(0).getDescription());
+        assertTrue(loadedTasks.get(1) instanceof Deadline);
+        assertEquals("X", loadedTasks.get(1).getStatus());
+    }
+    
+    @Test
+    public void recordAdd_thresholdReached_compactsJournal() {
+        storage.setJournaled(true);
+        storage.setCompactionThreshold(2);
+        ArrayList<Task> tasks = new ArrayList<>();
+        
+        Todo first = new Todo("read book");
+        tasks.add(first);
+        storage.recordAdd(first, tasks);
+        Todo second = new Todo("buy groceries");
+        tasks.add(second);
+        storage.recordAdd(second, tasks);
+        
+        assertFalse(new File(testFilePath + ".journal").exists());
+        assertEquals(2, storage.loadTasks().size());
+    }
+    
+    @Test
+    public void loadTasks_corruptedJournalRecord_skipsRecord() throws IOException {
+        FileWriter writer = new FileWriter(testFilePath + ".journal");
+        writer.write("ADD | T | 0 | read book\n");
+        writer.write("MARK | 7\n");
+        writer.write("ADD | T | 0 | buy gro");
+        writer.close();
+        
+        ArrayList<Task> tasks = storage.loadTasks();
+        
+        assertEquals(2, tasks.size());
+        assertEquals(" ", tasks.get(0).getStatus());
+    }
+    
+    @Test
+    public void loadTasks_memoryMapped_matchesStandardLoad() throws IOException {
+        String contents = "T | 1 | read book\r\n"
+                + "  D | 0 | return book | 2024-12-31 2359  \n"
+                + "\n"
+                + "E | 0 | caf\u00e9 meeting | 2024-08-06 1400 | 2024-08-06 1600\n"
+                + "CORRUPTED LINE\n"
+                + "P | 1 | assignment | 2024-12-01 0000 | 2024-12-15 0000";
+        Files.writeString(Path.of(testFilePath), contents, StandardCharsets.UTF_8);
+        
+        ArrayList<Task> standardTasks = storage.loadTasks();
+        storage.setLoadMode(Storage.LoadMode.MEMORY_MAPPED);
+        ArrayList<Task> mappedTasks = storage.loadTasks();
+        
+        assertEquals(4, mappedTasks.size());
+        for (int i = 0; i < standardTasks.size(); i++) {
+            assertEquals(standardTasks.get(i).toString(), mappedTasks.get(i).toString());
+        }
+    }
+    
+    @Test
+    public void loadTasks_withDescriptionInterner_sharesEqualDescriptions() throws IOException {
+        Files.writeString(Path.of(testFilePath), "T | 0 | read book\n"
+                + "D | 0 | read book | 2024-12-31 2359\n"
+                + "T | 0 | read book | extra | fields | here\n", StandardCharsets.UTF_8);
+        storage.setDescriptionInterner(new DescriptionInterner(16));
+        
+        for (Storage.LoadMode mode : Storage.LoadMode.values()) {
+            storage.setLoadMode(mode);
+            ArrayList<Task> tasks = storage.loadTasks();
+            assertEquals(3, tasks.size(), mode.name());
+            assertSame(tasks.get(0).getDescription(), tasks.get(1).getDescription());
+            assertSame(tasks.get(0).getDescription(), tasks.get(2).getDescription());
+        }
+    }
+    
+    @Test
+    public void loadTasks_memoryMappedCorruptedLine_reportsLineNumber() throws IOException {
+        FileWriter writer = new FileWriter(testFilePath);
+        writer.write("T | 0 | read book\n");
+        writer.write("\n");
+        writer.write("D | 0 | return book | invalid-date\n");
+        writer.close();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output));
+        
+        storage.setLoadMode(Storage.LoadMode.MEMORY_MAPPED);
+        ArrayList<Task> tasks;
+        try {
+            tasks = storage.loadTasks();
+        } finally {
+            System.setOut(originalOut);
+        }
+        
+        assertEquals(1, tasks.size());
+        assertTrue(output.toString().contains("Skipping corrupted line 3: D | 0 | return book | invalid-date"));
+    }
+    
+    @Test
+    public void saveTasks_binaryFormat_roundTripsAllTypes() {
+        storage.setFormat(Storage.Format.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Todo todo = new Todo("read book");
+        todo.markDone();
+        tasks.add(todo);
+        tasks.add(new Deadline("return book", "2024-12-31 2359"));
+        tasks.add(new Event("caf\u00e9 meeting", "2024-08-06 1400", "2024-08-06 1600"));
+        tasks.add(new Period("assignment", "2024-12-01", "2024-12-15"));
+        
+        storage.saveTasks(tasks);
+        ArrayList<Task> loadedTasks = storage.loadTasks();
+        
+        assertTrue(new File(tempDir.resolve("test_tasks.bin").toString()).exists());
+        assertEquals(4, loadedTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loadedTasks.get(i).toString());
+        }
+    }
+    
+    @Test
+    public void loadTasks_binaryFormatWithTextFile_migratesToBinary() throws IOException {
+        FileWriter writer = new FileWriter(testFilePath);
+        writer.write("T | 1 | read book\n");
+        writer.write("D | 0 | return book | 2024-12-31 2359\n");
+        writer.close();
+        
+        storage.setFormat(Storage.Format.BINARY);
+        ArrayList<Task> tasks = storage.loadTasks();
+        
+        assertEquals(2, tasks.size());
+        assertTrue(new File(tempDir.resolve("test_tasks.bin").toString()).exists());
+        Storage binaryStorage = new Storage(testFilePath);
+        binaryStorage.setFormat(Storage.Format.BINARY);
+        assertEquals("X", binaryStorage.loadTasks().get(0).getStatus());
+    }
+    
+    @Test
+    public void exportText_binaryFormat_writesReadableRecords() throws IOException {
+        storage.setFormat(Storage.Format.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("return book", "2024-12-31 2359"));
+        String exportPath = tempDir.resolve("export.txt").toString();
+        
+        storage.exportText(tasks, exportPath);
+        
+        assertEquals("D | 0 | return book | 2024-12-31 2359", Files.readString(Path.of(exportPath)).trim());
+    }
+    
+    @Test
+    public void loadTasks_parallelChunks_preserveOrderAndLineNumbers() throws IOException {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 1; i <= 20000; i++) {
+            if (i % 5000 == 0) {
+                contents.append("CORRUPTED LINE ").append(i).append("\r\n");
+            } else if (i % 3 == 0) {
+                contents.append("D | 1 | task ").append(i).append(" | 2024-12-31 2359\n");
+            } else {
+                contents.append("T | 0 | task ").append(i).append("\n");
+            }
+        }
+        Files.writeString(Path.of(testFilePath), contents.toString());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output));
+        
+        ArrayList<Task> tasks = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTaskFileReader.read(Path.of(testFilePath), tasks, pool, null);
+        } finally {
+            pool.shutdown();
+            System.setOut(originalOut);
+        }
+        
+        assertEquals(19996, tasks.size());
+        assertEquals("task 1", tasks.get(0).getDescription());
+        assertEquals("task 5001", tasks.get(4999).getDescription());
+        assertEquals("task 19999", tasks.get(19995).getDescription());
+        assertTrue(output.toString().contains("Skipping corrupted line 5000: CORRUPTED LINE 5000"));
+        assertTrue(output.toString().contains("Skipping corrupted line 20000: CORRUPTED LINE 20000"));
+    }
+    
+    @Test
+    public void findChunkBoundaries_largeBuffer_alignsToLineStarts() {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            contents.append("T | 0 | task ").append(i).append("\n");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(contents.toString().getBytes(StandardCharsets.UTF_8));
+        
+        int[] boundaries = ParallelTaskFileReader.findChunkBoundaries(buffer, 8);
+        
+        assertTrue(boundaries.length > 2);
+        assertEquals(0, boundaries[0]);
+        assertEquals(buffer.limit(), boundaries[boundaries.length - 1]);
+        for (int i = 1; i < boundaries.length - 1; i++) {
+            assertEquals('\n', buffer.get(boundaries[i] - 1));
+        }
+    }
+    
+    @Test
+    public void saveTasks_writeBehind_coalescesUntilFlush() {
+        storage.enableWriteBehind(60_000);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.saveTasks(tasks);
+        tasks.add(new Todo("buy groceries"));
+        storage.saveTasks(tasks);
+        
+        assertFalse(new File(testFilePath).exists());
+        
+        storage.flush();
+        storage.close();
+        assertEquals(2, new Storage(testFilePath).loadTasks().size());
+    }
+    
+    @Test
+    public void recordAdd_writeBehindJournaled_keepsRecordsAfterSnapshot() {
+        storage.setJournaled(true);
+        storage.enableWriteBehind(60_000);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.saveTasks(tasks);
+        Todo todo = new Todo("buy groceries");
+        tasks.add(todo);
+        storage.recordAdd(todo, tasks);
+        tasks.get(0).markDone();
+        storage.recordMark(0, tasks);
+        
+        storage.close();
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).loadTasks();
+        
+        assertEquals(2, loadedTasks.size());
+        assertEquals("X", loadedTasks.get(0).getStatus());
+        assertEquals("buy groceries", loadedTasks.get(1).getDescription());
+    }
+    
+    @Test
+    public void saveTasks_writeBehind_savesTasksAsSubmitted() {
+        storage.enableWriteBehind(10_000);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.saveTasks(tasks);
+        tasks.get(0).markDone();
+        storage.close();
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).loadTasks();
+        assertEquals(" ", loadedTasks.get(0).getStatus());
+    }
+
+    @Test
+    public void flush_writeBehindFailure_reportsError() throws IOException {
+        new File(tempDir.resolve("not_a_directory").toString()).createNewFile();
+        Storage failingStorage = new Storage(tempDir.resolve("not_a_directory").resolve("tasks.txt").toString());
+        failingStorage.enableWriteBehind(60_000);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        
+        failingStorage.saveTasks(tasks);
+        failingStorage.close();
+        
+        assertEquals(1, failingStorage.drainSaveErrors().size());
+        assertTrue(failingStorage.drainSaveErrors().isEmpty());
+    }
+    
+    @Test
+    public void saveTasks_backupCount_rotatesPreviousSnapshots() throws IOException {
+        storage.setBackupCount(2);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (String description : new String[] {"first", "second", "third", "fourth"}) {
+            tasks.clear();
+            tasks.add(new Todo(description));
+            storage.saveTasks(tasks);
+        }
+        
+        assertEquals("T | 0 | fourth", Files.readString(Path.of(testFilePath)).trim());
+        assertEquals("T | 0 | third", Files.readString(Path.of(testFilePath + ".1")).trim());
+        assertEquals("T | 0 | second", Files.readString(Path.of(testFilePath + ".2")).trim());
+        assertFalse(Files.exists(Path.of(testFilePath + ".3")));
+        assertFalse(Files.exists(Path.of(testFilePath + ".tmp")));
+    }
+    
+    @Test
+    public void atomicWrite_failureWhileWriting_keepsOriginalFile() throws IOException {
+        Path target = Path.of(testFilePath);
+        Files.writeString(target, "T | 0 | read book\n");
+        
+        assertThrows(IOException.class, () -> AtomicFileWriter.write(target, out -> {
+            out.write("T | 0 | partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("disk full");
+        }, 0));
+        
+        assertEquals("T | 0 | read book\n", Files.readString(target));
+        assertFalse(Files.exists(Path.of(testFilePath + ".tmp")));
+    }
+    
+    @Test
+    public void endBatch_afterRecordedChanges_savesOnce() {
+        storage.setJournaled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        
+        storage.beginBatch();
+        storage.beginBatch();
+        for (int i = 0; i < 5; i++) {
+            Todo todo = new Todo("task " + i);
+            tasks.add(todo);
+            storage.recordAdd(todo, tasks);
+        }
+        tasks.remove(0);
+        storage.recordDelete(0, tasks);
+        storage.endBatch(tasks);
+        
+        assertTrue(storage.isInBatch());
+        assertFalse(new File(testFilePath).exists());
+        assertFalse(new File(testFilePath + ".journal").exists());
+        
+        storage.endBatch(tasks);
+        
+        assertFalse(storage.isInBatch());
+        assertFalse(new File(testFilePath + ".journal").exists());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).loadTasks();
+        assertEquals(4, loadedTasks.size());
+        assertEquals("task 1", loadedTasks.get(0).getDescription());
+    }
+    
+    @Test
+    public void loadTasks_multiIndexJournalRecords_replaysInOnePass() {
+        storage.setJournaled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        storage.saveTasks(tasks);
+        
+        tasks.get(1).markDone();
+        tasks.get(4).markDone();
+        storage.recordMark(new int[] {1, 4}, tasks);
+        tasks.remove(5);
+        tasks.remove(2);
+        tasks.remove(0);
+        storage.recordDelete(new int[] {0, 2, 5}, tasks);
+        
+        ArrayList<Task> loadedTasks = new Storage(testFilePath).loadTasks();
+        assertEquals(3, loadedTasks.size());
+        assertEquals("task 1", loadedTasks.get(0).getDescription());
+        assertEquals("X", loadedTasks.get(0).getStatus());
+        assertEquals("task 3", loadedTasks.get(1).getDescription());
+        assertEquals("task 4", loadedTasks.get(2).getDescription());
+        assertEquals("X", loadedTasks.get(2).getStatus());
+    }
+    
+    @Test
+    public void loadTasks_taskIds_survivesDeleteAndReload() throws IOException, TypeCastException {
+        TaskList tasks = new TaskList(storage.loadTasks(), storage.getNextTaskId());
+        for (Task task : new Task[] {new Todo("first"), new Deadline("second", "2024-12-31 2359"),
+                new Event("third", "2024-08-06 1400", "2024-08-06 1600")}) {
+            tasks.add(task);
+            storage.recordAdd(task, tasks.getTasks());
+        }
+        tasks.delete(2);
+        storage.recordDelete(2, tasks.getTasks());
+        
+        assertEquals("NEXT_ID | 4", Files.readAllLines(Path.of(testFilePath)).get(0));
+        Storage reloaded = new Storage(testFilePath);
+        reloaded.setLoadMode(Storage.LoadMode.MEMORY_MAPPED);
+        TaskList loadedTasks = new TaskList(reloaded.loadTasks(), reloaded.getNextTaskId());
+        assertEquals(2, loadedTasks.size());
+        assertEquals("second", loadedTasks.getById(2).getDescription());
+        loadedTasks.add(new Todo("fourth"));
+        assertEquals(4, loadedTasks.get(2).getId());  // ID 3 is not reused
+    }
+    
+    @Test
+    public void saveTasks_binaryFormat_keepsTaskIds() throws TypeCastException {
+        storage.setFormat(Storage.Format.BINARY);
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("first"));
+        tasks.add(new Period("second", "2024-01-15", "2024-01-20"));
+        tasks.delete(0);
+        storage.saveTasks(tasks.getTasks());
+        
+        Storage reloaded = new Storage(testFilePath);
+        reloaded.setFormat(Storage.Format.BINARY);
+        ArrayList<Task> loadedTasks = reloaded.loadTasks();
+        assertEquals(2, loadedTasks.get(0).getId());
+        assertEquals(3, reloaded.getNextTaskId());
+    }
+    
+    @Test
+    public void loadTasks_recordsWithoutIds_loadWithoutIds() throws IOException {
+        Files.writeString(Path.of(testFilePath), "T | 0 | old task\nT | 1 | a | b\nT | 0 | new task | #7\n");
+        
+        ArrayList<Task> loadedTasks = storage.loadTasks();
+        assertEquals(3, loadedTasks.size());
+        assertEquals(0, loadedTasks.get(0).getId());
+        assertEquals("a", loadedTasks.get(1).getDescription());
+        assertEquals(0, loadedTasks.get(1).getId());
+        assertEquals(7, loadedTasks.get(2).getId());
+        assertEquals(8, storage.getNextTaskId());
+    }
+
+    @Test
+    public void reloadExternalChanges_editedDataFile_replacesOnlyEditedTasks()
+            throws IOException, InterruptedException {
+        TaskList tasks = new TaskList(storage.loadTasks());
+        tasks.add(new Todo("buy milk"));
+        tasks.add(new Todo("read book"));
+        tasks.add(new Todo("call mom"));
+        storage.setJournaled(true);
+        storage.saveTasks(tasks.getTasks());
+        Task first = tasks.get(0);
+        Task last = tasks.get(2);
+        storage.watchDataFile(tasks.getTasks());
+
+        // The app's own saves are not reloaded
+        tasks.markTaskDone(0);
+        storage.recordMark(0, tasks.getTasks());
+        assertEquals(0, waitForReload(tasks, 500));
+
+        Files.writeString(Path.of(testFilePath),
+                "T | 1 | buy milk | #1\nT | 1 | read book | #2\nT | 0 | write essay\nT | 0 | call mom | #3\n");
+        assertEquals(2, waitForReload(tasks, 10_000));
+        storage.close();
+
+        assertEquals(4, tasks.size());
+        assertSame(first, tasks.get(0));
+        assertSame(last, tasks.get(3));
+        assertTrue(tasks.get(1).isDone());
+        assertEquals("write essay", tasks.get(2).getDescription());
+        assertEquals(4, tasks.get(2).getId());
+    }
+
+    @Test
+    public void saveTasks_watchedFileEditedWhileSavePending_keepsEditAndReportsIt() throws IOException {
+        TaskList tasks = new TaskList(storage.loadTasks());
+        tasks.add(new Todo("buy milk"));
+        storage.saveTasks(tasks.getTasks());
+        storage.watchDataFile(tasks.getTasks());
+        storage.enableWriteBehind(60_000);
+
+        tasks.add(new Todo("read book"));
+        storage.saveTasks(tasks.getTasks());
+        String edit = "T | 1 | buy milk | #1\n";
+        Files.writeString(Path.of(testFilePath), edit);
+        storage.flush();
+
+        List<String> errors = storage.drainSaveErrors();
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).startsWith("Another program changed " + testFilePath));
+        assertEquals(edit, Files.readString(Path.of(testFilePath + ".conflict")));
+        assertEquals(0, storage.reloadExternalChanges(tasks));
+        assertEquals(2, storage.loadTasks().size());
+        storage.close();
+    }
+
+    @Test
+    public void watchDataFile_binaryFormat_throwsIOException() {
+        storage.setFormat(Storage.Format.BINARY);
+        assertThrows(IOException.class, () -> storage.watchDataFile(List.of()));
+    }
+
+    private int waitForReload(TaskList tasks, long timeoutMillis) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        int changedCount = 0;
+        while (changedCount == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            changedCount = storage.reloadExternalChanges(tasks);
+        }
+        return changedCount;
+    }
+}
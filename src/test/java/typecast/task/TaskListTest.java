@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import typecast.exception.TypeCastException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -125,4 +129,246 @@ public class TaskListTest {
         tasks.delete(0);
         assertEquals(1, tasks.size());
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void findTasks_substringIgnoringCase_returnsMatchesInListOrder() {
+        tasks.add(new Todo("Read Book"));
+        tasks.add(new Todo("buy groceries"));
+        tasks.add(sampleDeadline);
+        
+        ArrayList<Task> matches = tasks.findTasks("BOO");
+        
+        assertEquals(2, matches.size());
+        assertEquals("Read Book", matches.get(0).getDescription());
+        assertEquals(sampleDeadline, matches.get(1));
+    }
+    
+    @Test
+    public void findTasks_shortKeyword_matchesLikeFullScan() {
+        tasks.add(sampleTodo);
+        tasks.add(new Todo("buy groceries"));
+        
+        assertEquals(2, tasks.findTasks("r").size());
+        assertEquals(1, tasks.findTasks("ea").size());
+        assertEquals(2, tasks.findTasks("").size());
+    }
+    
+    @Test
+    public void findTasks_afterDelete_excludesDeletedTask() throws TypeCastException {
+        tasks.add(sampleTodo);
+        tasks.add(sampleDeadline);
+        
+        tasks.delete(0);
+        
+        ArrayList<Task> matches = tasks.findTasks("book");
+        assertEquals(1, matches.size());
+        assertEquals(sampleDeadline, matches.get(0));
+        assertFalse(tasks.hasTaskWithKeyword("read"));
+    }
+    
+    @Test
+    public void findTasks_existingTasks_indexedOnConstruction() {
+        ArrayList<Task> existing = new ArrayList<>();
+        existing.add(sampleTodo);
+        existing.add(new Todo("buy groceries"));
+        TaskList loaded = new TaskList(existing);
+        
+        assertEquals(1, loaded.findTasks("grocer").size());
+        assertTrue(loaded.hasTaskWithKeyword("read"));
+        assertTrue(loaded.findTasks("no such task").isEmpty());
+    }
+    
+    @Test
+    public void getTasksDueBy_deadlines_returnsEarliestFirst() throws TypeCastException {
+        Deadline early = new Deadline("submit report", "2024-03-01 0900");
+        Deadline late = new Deadline("pay rent", "2025-01-01 0000");
+        tasks.add(sampleDeadline);
+        tasks.add(sampleTodo);
+        tasks.add(late);
+        tasks.add(early);
+        
+        ArrayList<Task> due = tasks.getTasksDueBy(LocalDateTime.of(2024, 12, 31, 23, 59));
+        assertEquals(2, due.size());
+        assertEquals(early, due.get(0));
+        assertEquals(sampleDeadline, due.get(1));
+        
+        tasks.delete(3);
+        assertEquals(1, tasks.getTasksDueBy(LocalDateTime.of(2024, 12, 31, 23, 59)).size());
+    }
+    
+    @Test
+    public void getTasksBetween_mixedTasks_returnsOverlappingByStart() {
+        Event conference = new Event("conference", "2024-06-10 0900", "2024-06-12 1700");
+        Period holiday = new Period("holiday", "2024-05-01", "2024-06-30");
+        Event meetup = new Event("meetup", "2024-07-01 1800", "2024-07-01 2100");
+        Deadline essay = new Deadline("essay", "2024-06-11 1200");
+        ArrayList<Task> existing = new ArrayList<>();
+        existing.add(conference);
+        existing.add(holiday);
+        existing.add(meetup);
+        existing.add(sampleTodo);
+        TaskList loaded = new TaskList(existing);
+        loaded.add(essay);
+        
+        ArrayList<Task> overlapping = loaded.getTasksBetween(
+                LocalDateTime.of(2024, 6, 11, 0, 0), LocalDateTime.of(2024, 6, 11, 23, 59));
+        assertEquals(3, overlapping.size());
+        assertEquals(holiday, overlapping.get(0));
+        assertEquals(conference, overlapping.get(1));
+        assertEquals(essay, overlapping.get(2));
+        
+        assertTrue(loaded.getTasksBetween(
+                LocalDateTime.of(2024, 7, 2, 0, 0), LocalDateTime.of(2024, 7, 3, 0, 0)).isEmpty());
+    }
+    
+    @Test
+    public void countCompletedTasks_markUnmarkDelete_keepsCountsInSync() throws TypeCastException {
+        tasks.add(sampleTodo);
+        tasks.add(sampleDeadline);
+        tasks.add(new Todo("buy groceries"));
+        
+        tasks.markTaskDone(0);
+        tasks.markTaskDone(0);
+        tasks.markTaskDone(1);
+        assertEquals(2, tasks.countCompletedTasks());
+        assertEquals(1, tasks.countPendingTasks());
+        
+        tasks.markTaskNotDone(1);
+        tasks.markTaskNotDone(1);
+        assertEquals(1, tasks.countCompletedTasks());
+        
+        tasks.delete(0);
+        assertEquals(0, tasks.countCompletedTasks());
+        assertEquals(2, tasks.countPendingTasks());
+        assertEquals(1, tasks.countTasksOfType(Todo.class));
+        assertEquals(1, tasks.countTasksOfType(Deadline.class));
+        assertEquals(0, tasks.countTasksOfType(Event.class));
+    }
+    
+    @Test
+    public void getCompletedTasks_existingTasks_countedOnConstruction() {
+        ArrayList<Task> existing = new ArrayList<>();
+        existing.add(sampleTodo);
+        existing.add(sampleDeadline);
+        sampleDeadline.markDone();
+        TaskList loaded = new TaskList(existing);
+        
+        assertEquals(1, loaded.countCompletedTasks());
+        assertEquals(sampleDeadline, loaded.getCompletedTasks().get(0));
+        assertEquals(sampleTodo, loaded.getPendingTasks().get(0));
+        assertEquals(1, loaded.getPendingTasks().size());
+    }
+    
+    @Test
+    public void deleteAll_severalIndices_keepsIndexesAndCountsInSync() throws TypeCastException {
+        tasks.add(sampleTodo);
+        tasks.add(sampleDeadline);
+        tasks.add(new Todo("buy bread"));
+        tasks.markTaskDone(1);
+        
+        ArrayList<Task> removed = tasks.deleteAll(new int[] {0, 1});
+        
+        assertEquals(2, removed.size());
+        assertEquals(sampleTodo, removed.get(0));
+        assertEquals(1, tasks.size());
+        assertEquals(0, tasks.countCompletedTasks());
+        assertFalse(tasks.hasTaskWithKeyword("book"));
+        assertTrue(tasks.getTasksDueBy(LocalDateTime.of(2025, 1, 1, 0, 0)).isEmpty());
+        assertThrows(TypeCastException.class, () -> tasks.deleteAll(new int[] {0, 1}));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void add_assignsIdsThatAreNotReusedAfterDelete() throws TypeCastException {
+        tasks.add(new Todo("first"));
+        tasks.add(new Todo("second"));
+        tasks.delete(1);
+        tasks.add(new Todo("third"));
+
+        assertEquals(1, tasks.get(0).getId());
+        assertEquals(3, tasks.get(1).getId());
+        assertNull(tasks.getById(2));
+        assertEquals(1, tasks.indexOfId(3));
+        assertEquals(-1, tasks.indexOfId(2));
+    }
+
+    @Test
+    public void constructor_duplicateOrMissingIds_assignsNewIds() {
+        ArrayList<Task> existing = new ArrayList<>();
+        existing.add(new Todo("kept"));
+        existing.add(new Todo("duplicate"));
+        existing.add(new Todo("missing"));
+        existing.get(0).setId(5);
+        existing.get(1).setId(5);
+
+        TaskList loaded = new TaskList(existing, 3);
+
+        assertSame(existing.get(0), loaded.getById(5));
+        assertEquals(6, existing.get(1).getId());
+        assertEquals(7, existing.get(2).getId());
+        assertEquals(8, loaded.getNextId());
+    }
+
+    @Test
+    public void deleteAll_manyTasks_keepsOrderAndPositionsOfIds() throws TypeCastException {
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+
+        tasks.delete(0);
+        tasks.deleteAll(new int[] {0, 500, 997});
+
+        assertEquals(996, tasks.size());
+        assertEquals("task 2", tasks.get(0).getDescription());
+        assertEquals("task 503", tasks.get(500).getDescription());
+        assertEquals("task 999", tasks.get(995).getDescription());
+        assertEquals(500, tasks.indexOfId(504));
+        assertEquals(-1, tasks.indexOfId(502));
+    }
+
+    @Test
+    public void constructor_withDescriptionInterner_sharesEqualDescriptions() {
+        ArrayList<Task> existing = new ArrayList<>();
+        existing.add(new Todo(new String("read book")));
+        existing.add(new Deadline(new String("read book"), "2024-12-31 2359"));
+        DescriptionInterner interner = new DescriptionInterner(16);
+
+        TaskList loaded = new TaskList(existing, 1, interner);
+        Todo added = new Todo(new String("read book"));
+        loaded.add(added);
+
+        assertSame(existing.get(0).getDescription(), existing.get(1).getDescription());
+        assertSame(existing.get(0).getDescription(), added.getDescription());
+        assertEquals(2, interner.getSharedCount());
+        assertTrue(interner.getSavedBytes() > 0);
+        assertEquals(3, loaded.findTasks("book").size());
+    }
+
+    @Test
+    public void replace_middleRange_keepsOtherTasksAndIndexes() {
+        Todo first = new Todo("buy milk");
+        Deadline second = new Deadline("return book", "2024-12-31 2359");
+        Todo third = new Todo("call mom");
+        tasks.add(first);
+        tasks.add(second);
+        tasks.add(third);
+
+        Todo replacement = new Todo("return book to library");
+        replacement.setId(2);
+        Todo inserted = new Todo("write essay");
+        tasks.replace(1, 2, List.of(replacement, inserted));
+
+        assertEquals(4, tasks.size());
+        assertSame(first, tasks.get(0));
+        assertSame(replacement, tasks.get(1));
+        assertSame(inserted, tasks.get(2));
+        assertSame(third, tasks.get(3));
+        assertEquals(2, replacement.getId());
+        assertEquals(4, inserted.getId());
+        assertEquals(2, tasks.indexOfId(4));
+        assertEquals(List.of(replacement), tasks.findTasks("library"));
+        assertEquals(List.of(inserted), tasks.findTasks("essay"));
+        assertTrue(tasks.getTasksDueBy(LocalDateTime.of(2025, 1, 1, 0, 0)).isEmpty());
+        assertEquals(0, tasks.countTasksOfType(Deadline.class));
+    }
+}
@@ -94,7 +94,18 @@ public class TaskTest {
         result = event.toString();
         assertTrue(result.startsWith("[E][X] project meeting"));
     }
-    
+
+    @Test
+    public void toString_repeatedCalls_reusesStringUntilMarked() {
+        String first = deadline.toString();
+        assertSame(first, deadline.toString());
+
+        deadline.markDone();
+        assertTrue(deadline.toString().startsWith("[D][X] return book"));
+        deadline.markNotDone();
+        assertEquals(first, deadline.toString());
+    }
+
     @Test
     public void deadline_invalidDateFormat_throwsException() {
         assertThrows(IllegalArgumentException.class, 
@@ -124,4 +135,22 @@ public class TaskTest {
         String result = e.toString();
         assertTrue(result.contains("12:00AM"));  // Default start-of-day time
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void deadline_dayPastEndOfMonth_movesToLastDay() {
+        assertEquals(java.time.LocalDateTime.of(2024, 2, 29, 18, 0),
+            new Deadline("test", "2024-02-31 1800").getBy());
+        assertEquals(java.time.LocalDateTime.of(2024, 3, 1, 0, 0),
+            new Deadline("test", "2024-02-30 2400").getBy());  // 2400 is the next midnight
+    }
+    
+    @Test
+    public void deadline_malformedDateTime_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new Deadline("test", "2024-12-31 2401"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new Deadline("test", "2024-12-31  1800"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new Deadline("test", "12024-12-31 1800"));  // Long years need a sign
+    }
+}
@@ -6,8 +6,15 @@ if not exist ..\bin mkdir ..\bin
 REM delete output from previous run
 if exist ACTUAL.TXT del ACTUAL.TXT
 
-REM compile the code into the bin folder
-javac -encoding UTF-8 -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\*.java
+REM start from an empty task list
+if exist data rmdir /s /q data
+
+REM compile the code without the JavaFX GUI into the bin folder
+if exist sources.txt del sources.txt
+for /r ..\src\main\java %%f in (*.java) do (
+    findstr /m /c:"javafx" "%%f" >nul || echo %%f>> sources.txt
+)
+javac -encoding UTF-8 -cp ..\src\main\java -Xlint:none -d ..\bin @sources.txt
 IF ERRORLEVEL 1 (
     echo ********** BUILD FAILURE **********
     exit /b 1
@@ -15,7 +22,7 @@ IF ERRORLEVEL 1 (
 REM no error here, errorlevel == 0
 
 REM run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ..\bin TypeCast < input.txt > ACTUAL.TXT
+java -classpath ..\bin typecast.TypeCast < input.txt > ACTUAL.TXT
 
 REM compare the output to the expected output
 FC ACTUAL.TXT EXPECTED.TXT
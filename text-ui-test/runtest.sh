@@ -12,15 +12,18 @@ then
     rm ACTUAL.TXT
 fi
 
-# compile the code into the bin folder, terminates if error occurred
-if ! javac -encoding UTF-8 -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+# start from an empty task list
+rm -rf ./data
+
+# compile the code without the JavaFX GUI into the bin folder, terminates if error occurred
+if ! javac -encoding UTF-8 -cp ../src/main/java -Xlint:none -d ../bin $(grep -L -r javafx ../src/main/java --include=*.java)
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin TypeCast < input.txt > ACTUAL.TXT
+java -classpath ../bin typecast.TypeCast < input.txt > ACTUAL.TXT
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT